@@ -0,0 +1,77 @@
+package ru.oldzoomer.tasks.benchmark;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import ru.oldzoomer.tasks.TasksApplication;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The application on the embedded H2 of the {@code test} profile, seeded with {@value #TASKS} tasks of
+ * {@value #AUTHORS} authors and two comments per task. Background jobs are held off, so that they do
+ * not run into the measurements.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+    static final int TASKS = 100_000;
+    static final int AUTHORS = 1_000;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(TasksApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run(arguments().toArray(String[]::new));
+        seed(context.getBean(JdbcClient.class));
+    }
+
+    List<String> arguments() {
+        return new ArrayList<>(List.of("--tasks.outbox.poll-interval=1h",
+                "--tasks.purge.interval=1h",
+                "--tasks.archive.interval=1h",
+                "--tasks.stats.reconcile-interval=1h",
+                "--logging.level.root=warn"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private static void seed(JdbcClient jdbcClient) {
+        jdbcClient.sql("""
+                        insert into tasks (id, name, description, status, priority, author_email, assigned_email,
+                                           version, comment_count, deleted)
+                        select x, 'Task ' || x, 'Description of the benchmark task ' || x, mod(x, 3), mod(x, 3),
+                               'author' || mod(x, :authors) || '@email.com',
+                               'assigned' || mod(x, :authors / 2) || '@email.com', 0, 2, false
+                          from system_range(1, :tasks)""")
+                .param("authors", AUTHORS)
+                .param("tasks", TASKS)
+                .update();
+        jdbcClient.sql("""
+                        insert into comments (id, author_email, task_id, text, version)
+                        select x, 'assigned' || mod(x, :authors / 2) || '@email.com', (x + 1) / 2, 'Comment ' || x, 0
+                          from system_range(1, :tasks * 2)""")
+                .param("authors", AUTHORS)
+                .param("tasks", TASKS)
+                .update();
+        // Seeded rows bypass the pooled sequences; move them past the rows, as V2 does on PostgreSQL
+        jdbcClient.sql("alter sequence tasks_seq restart with " + (TASKS + 1)).update();
+        jdbcClient.sql("alter sequence comments_seq restart with " + (2 * TASKS + 1)).update();
+        jdbcClient.sql("analyze").update();
+    }
+}
@@ -0,0 +1,57 @@
+package ru.oldzoomer.tasks.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import ru.oldzoomer.tasks.security.CachingJwtDecoder;
+import ru.oldzoomer.tasks.security.KeycloakRoleConverter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Authentication of a request with a bearer token already in the cache: the decode and the lookup of
+ * the authorities that JwtAuthenticationConverter makes for every request. The token value is as
+ * long as a Keycloak token, since hashing it is a part of the cost. Uses the public API only, so the
+ * same benchmark runs against earlier versions of the decoder.
+ */
+@State(Scope.Benchmark)
+public class CachingJwtDecoderBenchmark {
+    private static final int TOKEN_LENGTH = 1200;
+
+    private CachingJwtDecoder decoder;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        byte[] random = new byte[TOKEN_LENGTH * 3 / 4];
+        ThreadLocalRandom.current().nextBytes(random);
+        token = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+
+        Instant now = Instant.now();
+        Jwt jwt = Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .issuer("http://keycloak:8080/auth/realms/tasks")
+                .subject("0b6e1c2a-8d5f-4f7e-9a3b-2c4d6e8f0a1b")
+                .issuedAt(now)
+                .expiresAt(now.plus(Duration.ofHours(1)))
+                .claim("realm_access", Map.of("roles", List.of("default-roles-tasks", "offline_access", "user")))
+                .claim("resource_access", Map.of("tasks", Map.of("roles", List.of("user", "reviewer"))))
+                .build();
+        decoder = new CachingJwtDecoder(value -> jwt, new KeycloakRoleConverter(), 10_000, Duration.ofHours(1));
+        decoder.decode(token);
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> decodeAndAuthorities() {
+        return decoder.authorities(decoder.decode(token));
+    }
+}
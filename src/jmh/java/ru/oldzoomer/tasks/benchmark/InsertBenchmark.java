@@ -0,0 +1,87 @@
+package ru.oldzoomer.tasks.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.oldzoomer.tasks.constant.TaskPriority;
+import ru.oldzoomer.tasks.constant.TaskStatus;
+import ru.oldzoomer.tasks.entity.Comments;
+import ru.oldzoomer.tasks.entity.Task;
+import ru.oldzoomer.tasks.service.CommentsService;
+import ru.oldzoomer.tasks.service.TaskService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Inserts through the services, in tasks/s and comments/s: the throughput the pooled sequences and
+ * JDBC batching are for. Run with {@code -PjmhIncludes=InsertBenchmark}; every benchmark runs once
+ * with JDBC batching off ({@code jdbcBatchSize=1}, one statement per row as before the change) and
+ * once with the configured batch size.
+ */
+@State(Scope.Benchmark)
+public class InsertBenchmark {
+    private static final int BATCH_SIZE = 50;
+    private static final String AUTHOR_EMAIL = "author42@email.com";
+    private static final String ASSIGNED_EMAIL = "assigned42@email.com";
+
+    private TaskService taskService;
+    private CommentsService commentsService;
+
+    @Setup
+    public void setUp(BatchingApplicationState application) {
+        taskService = application.getBean(TaskService.class);
+        commentsService = application.getBean(CommentsService.class);
+    }
+
+    @Benchmark
+    public Task createTask() {
+        return taskService.create(newTask(), AUTHOR_EMAIL, ASSIGNED_EMAIL);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Task> createTasks() {
+        List<Task> tasks = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Task task = newTask();
+            task.setAssignedEmail(ASSIGNED_EMAIL);
+            tasks.add(task);
+        }
+        return taskService.createAll(tasks, AUTHOR_EMAIL);
+    }
+
+    @Benchmark
+    public Comments createComment() {
+        Comments comment = new Comments();
+        comment.setText("Comment of the insert benchmark");
+        long taskId = ThreadLocalRandom.current().nextLong(1, ApplicationState.TASKS + 1);
+        return commentsService.create(comment, taskId, ASSIGNED_EMAIL);
+    }
+
+    @State(Scope.Benchmark)
+    public static class BatchingApplicationState extends ApplicationState {
+        @Param({"1", "50"})
+        public int jdbcBatchSize;
+
+        @Override
+        List<String> arguments() {
+            List<String> arguments = super.arguments();
+            arguments.add("--spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize);
+            return arguments;
+        }
+    }
+
+    private static Task newTask() {
+        Task task = new Task();
+        task.setName("Benchmark task");
+        task.setDescription("Created by the insert benchmark");
+        task.setStatus(TaskStatus.PENDING);
+        task.setPriority(TaskPriority.MEDIUM);
+        return task;
+    }
+}
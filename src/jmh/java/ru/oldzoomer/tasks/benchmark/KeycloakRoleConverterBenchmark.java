@@ -0,0 +1,53 @@
+package ru.oldzoomer.tasks.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import ru.oldzoomer.tasks.security.KeycloakRoleConverter;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Role conversion of a token shaped as Keycloak issues it: default realm roles plus a few clients.
+ */
+@State(Scope.Benchmark)
+public class KeycloakRoleConverterBenchmark {
+    private final KeycloakRoleConverter converter = new KeycloakRoleConverter();
+
+    private Jwt jwt;
+
+    @Setup
+    public void setUp() {
+        Instant now = Instant.now();
+        jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .header("typ", "JWT")
+                .header("kid", "5f1d3c8e")
+                .issuer("http://keycloak:8080/auth/realms/tasks")
+                .subject("0b6e1c2a-8d5f-4f7e-9a3b-2c4d6e8f0a1b")
+                .audience(List.of("tasks", "account"))
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(300))
+                .claim("azp", "tasks")
+                .claim("scope", "openid profile email")
+                .claim("email", "user@email.com")
+                .claim("preferred_username", "user")
+                .claim("realm_access", Map.of("roles",
+                        List.of("default-roles-tasks", "offline_access", "uma_authorization", "user")))
+                .claim("resource_access", Map.of(
+                        "tasks", Map.of("roles", List.of("user", "reviewer")),
+                        "account", Map.of("roles", List.of("manage-account", "manage-account-links", "view-profile"))))
+                .build();
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> convert() {
+        return converter.convert(jwt);
+    }
+}
@@ -0,0 +1,69 @@
+package ru.oldzoomer.tasks.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.oldzoomer.tasks.constant.TaskPriority;
+import ru.oldzoomer.tasks.constant.TaskStatus;
+import ru.oldzoomer.tasks.dto.input.tasks.CreateTaskDto;
+import ru.oldzoomer.tasks.dto.output.comments.CommentOutputDto;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskOutputDto;
+import ru.oldzoomer.tasks.entity.Comments;
+import ru.oldzoomer.tasks.entity.Task;
+import ru.oldzoomer.tasks.mapper.CommentMapper;
+import ru.oldzoomer.tasks.mapper.CommentMapperImpl;
+import ru.oldzoomer.tasks.mapper.TaskMapper;
+import ru.oldzoomer.tasks.mapper.TaskMapperImpl;
+
+/**
+ * MapStruct mappings of the create and read paths.
+ */
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+    private final TaskMapper taskMapper = new TaskMapperImpl();
+    private final CommentMapper commentMapper = new CommentMapperImpl();
+
+    private CreateTaskDto createTaskDto;
+    private Task task;
+    private Comments comment;
+
+    @Setup
+    public void setUp() {
+        createTaskDto = new CreateTaskDto("Prepare the quarterly report", "Collect the figures of all departments",
+                TaskStatus.PENDING, TaskPriority.HIGH, "assigned@email.com");
+
+        task = new Task();
+        task.setId(42L);
+        task.setName(createTaskDto.name());
+        task.setDescription(createTaskDto.description());
+        task.setStatus(TaskStatus.PROCESSING);
+        task.setPriority(TaskPriority.HIGH);
+        task.setAuthorEmail("author@email.com");
+        task.setAssignedEmail("assigned@email.com");
+        task.setVersion(3L);
+        task.setCommentCount(12L);
+
+        comment = new Comments();
+        comment.setId(4242L);
+        comment.setAuthorEmail("assigned@email.com");
+        comment.setTask(task);
+        comment.setText("The figures of the sales department are late");
+        comment.setVersion(0L);
+    }
+
+    @Benchmark
+    public Task mapCreateTaskDto() {
+        return taskMapper.map(createTaskDto);
+    }
+
+    @Benchmark
+    public TaskOutputDto mapTask() {
+        return taskMapper.map(task);
+    }
+
+    @Benchmark
+    public CommentOutputDto mapComment() {
+        return commentMapper.map(comment);
+    }
+}
@@ -0,0 +1,55 @@
+package ru.oldzoomer.tasks.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.oldzoomer.tasks.dto.output.comments.CommentOutputDto;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskOutputDto;
+import ru.oldzoomer.tasks.repo.CommentsRepository;
+import ru.oldzoomer.tasks.repo.TaskRepository;
+
+import java.util.Optional;
+
+/**
+ * Read queries of the list and get paths against the seeded H2 of {@link ApplicationState}.
+ */
+@State(Scope.Benchmark)
+public class RepositoryBenchmark {
+    private static final String AUTHOR_EMAIL = "author42@email.com";
+    private static final long TASK_ID = ApplicationState.TASKS / 2 + 42;
+    private static final Pageable PAGE = PageRequest.of(0, 20);
+
+    private TaskRepository taskRepository;
+    private CommentsRepository commentsRepository;
+
+    @Setup
+    public void setUp(ApplicationState application) {
+        taskRepository = application.getBean(TaskRepository.class);
+        commentsRepository = application.getBean(CommentsRepository.class);
+    }
+
+    @Benchmark
+    public Optional<TaskOutputDto> findTaskById() {
+        return taskRepository.findOutputById(TASK_ID);
+    }
+
+    @Benchmark
+    public Page<TaskOutputDto> findTasksByAuthorEmail() {
+        return taskRepository.findOutputByAuthorEmail(AUTHOR_EMAIL, PAGE);
+    }
+
+    @Benchmark
+    public Slice<TaskOutputDto> scrollTasksByAuthorEmail() {
+        return taskRepository.findOutputByAuthorEmailAfterId(AUTHOR_EMAIL, TASK_ID, PAGE);
+    }
+
+    @Benchmark
+    public Page<CommentOutputDto> findCommentsByTaskId() {
+        return commentsRepository.findOutputByTaskId(TASK_ID, PAGE);
+    }
+}
@@ -0,0 +1,44 @@
+package ru.oldzoomer.tasks.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import ru.oldzoomer.tasks.constant.TaskPriority;
+import ru.oldzoomer.tasks.constant.TaskStatus;
+import ru.oldzoomer.tasks.dto.output.Response;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskOutputDto;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * JSON of a page of tasks as the list endpoints return it, written by the application's own mapper,
+ * so that the page is serialized through the same DTO as in production.
+ */
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+    private JsonMapper jsonMapper;
+    private Response<Page<TaskOutputDto>> response;
+
+    @Setup
+    public void setUp(ApplicationState application) {
+        jsonMapper = application.getBean(JsonMapper.class);
+
+        List<TaskOutputDto> tasks = LongStream.rangeClosed(1, 20)
+                .mapToObj(id -> new TaskOutputDto(id, "Task " + id, "Description of the benchmark task " + id,
+                        TaskStatus.values()[(int) (id % 3)], TaskPriority.values()[(int) (id % 3)],
+                        "author@email.com", "assigned@email.com", id, id % 5))
+                .toList();
+        response = new Response<>(new PageImpl<>(tasks, PageRequest.of(0, 20), 1_000), "Tasks found", true);
+    }
+
+    @Benchmark
+    public byte[] writeTaskPage() {
+        return jsonMapper.writeValueAsBytes(response);
+    }
+}
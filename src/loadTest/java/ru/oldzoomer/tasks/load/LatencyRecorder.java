@@ -0,0 +1,82 @@
+package ru.oldzoomer.tasks.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and error counts per operation of one run, in microseconds.
+ */
+final class LatencyRecorder {
+    private static final long HIGHEST_LATENCY = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    LatencyRecorder() {
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(HIGHEST_LATENCY, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    void record(Operation operation, long latencyNanos, boolean failed) {
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_LATENCY);
+        histograms.get(operation).recordValue(micros);
+        if (failed) {
+            errors.get(operation).increment();
+        }
+    }
+
+    /**
+     * Prints a line per operation, in milliseconds, and writes the full histogram of each to
+     * {@code <dir>/<run>-<operation>.hgrm}.
+     */
+    void report(String run, Duration elapsed, PrintStream out, Path dir) throws IOException {
+        Files.createDirectories(dir);
+        double seconds = elapsed.toNanos() / 1e9;
+
+        out.printf("%n%s run, %.1f s%n", run, seconds);
+        out.printf("%-16s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "calls", "errors", "calls/s", "p50 ms", "p95 ms", "p99 ms", "p999 ms", "max ms");
+        Histogram total = new Histogram(HIGHEST_LATENCY, 3);
+        long totalErrors = 0;
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            long operationErrors = errors.get(operation).sum();
+            printLine(out, operation.key(), histogram, operationErrors, seconds);
+            total.add(histogram);
+            totalErrors += operationErrors;
+
+            try (PrintStream file = new PrintStream(Files.newOutputStream(dir.resolve(run + "-" + operation.key() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(file, 1000.0);
+            }
+        }
+        printLine(out, "all", total, totalErrors, seconds);
+    }
+
+    private static void printLine(PrintStream out, String name, Histogram histogram, long errors, double seconds) {
+        out.printf("%-16s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name,
+                histogram.getTotalCount(),
+                errors,
+                histogram.getTotalCount() / seconds,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(95) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+}
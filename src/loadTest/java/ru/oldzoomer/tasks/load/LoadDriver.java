@@ -0,0 +1,139 @@
+package ru.oldzoomer.tasks.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Issues the traffic mix against the application, every call on its own virtual thread.
+ * Closing the driver closes its HTTP client and then the executor of the client.
+ */
+final class LoadDriver implements AutoCloseable {
+    private static final Pattern DATA_ID = Pattern.compile("\"id\":(\\d+)");
+
+    private final ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(clientExecutor)
+            .build();
+    private final URI baseUri;
+    private final LoadUser[] users;
+    private final TrafficMix mix;
+    private long[] taskIds;
+
+    LoadDriver(URI baseUri, LoadUser[] users, TrafficMix mix) {
+        this.baseUri = baseUri;
+        this.users = users;
+        this.mix = mix;
+    }
+
+    /**
+     * Creates {@code tasksPerUser} tasks of every user, the tasks the mix reads and comments on.
+     */
+    void seed(int tasksPerUser) throws InterruptedException, ExecutionException {
+        Queue<Long> ids = new ConcurrentLinkedQueue<>();
+        List<Future<?>> seeders = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (LoadUser user : users) {
+                seeders.add(executor.submit(() -> {
+                    for (int i = 0; i < tasksPerUser; i++) {
+                        LoadUser assigned = users[ThreadLocalRandom.current().nextInt(users.length)];
+                        HttpResponse<String> response = client.send(
+                                Operation.CREATE_TASK.request(baseUri, user, assigned, 0),
+                                HttpResponse.BodyHandlers.ofString());
+                        Matcher id = DATA_ID.matcher(response.body());
+                        if (response.statusCode() != 201 || !id.find()) {
+                            throw new IllegalStateException("Seeding failed with " + response.statusCode()
+                                    + ": " + response.body());
+                        }
+                        ids.add(Long.parseLong(id.group(1)));
+                    }
+                    return null;
+                }));
+            }
+        }
+        for (Future<?> seeder : seeders) {
+            seeder.get();
+        }
+        taskIds = ids.stream().mapToLong(Long::longValue).toArray();
+        if (taskIds.length == 0) {
+            throw new IllegalStateException("No tasks were seeded");
+        }
+    }
+
+    /**
+     * Closed model: {@code concurrency} users, each calling again as soon as its previous call answered.
+     * Throughput follows the latency of the application.
+     */
+    void runClosed(int concurrency, Duration duration, LatencyRecorder recorder) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        call(mix.next(), System.nanoTime(), recorder);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Open model: calls arrive at a fixed {@code rate} per second whether or not earlier ones answered.
+     * Latency counts from the time a call was due, so that a stalled application or generator shows up
+     * in the percentiles instead of lowering the rate.
+     */
+    void runOpen(int rate, Duration duration, LatencyRecorder recorder) {
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long calls = duration.toNanos() / interval;
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < calls; i++) {
+                long due = start + i * interval;
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Operation operation = mix.next();
+                executor.submit(() -> call(operation, due, recorder));
+            }
+        }
+    }
+
+    private void call(Operation operation, long startNanos, LatencyRecorder recorder) {
+        boolean failed;
+        try {
+            HttpResponse<Void> response = client.send(operation.request(baseUri, users, taskIds),
+                    HttpResponse.BodyHandlers.discarding());
+            failed = response.statusCode() >= 400;
+        } catch (IOException e) {
+            failed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        recorder.record(operation, System.nanoTime() - startNanos, failed);
+    }
+
+    @Override
+    public void close() {
+        client.close();
+        clientExecutor.close();
+    }
+}
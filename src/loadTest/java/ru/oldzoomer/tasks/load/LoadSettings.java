@@ -0,0 +1,48 @@
+package ru.oldzoomer.tasks.load;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of a run, read from {@code load.*} system properties.
+ *
+ * @param model     {@code closed}, {@code open} or {@code both}
+ * @param users     users of the closed model, each issuing its next call once the previous one answered;
+ *                  also the number of users the calls of the open model are spread over
+ * @param rate      calls per second of the open model, issued whether or not earlier calls answered
+ * @param duration  measured time of each model
+ * @param warmup    unmeasured closed-model run before the first model
+ * @param mix       weights of the operations, e.g. {@code task.get=35,task.list=25}
+ * @param seedTasks tasks created by every user before the runs
+ */
+record LoadSettings(String model,
+                    int users,
+                    int rate,
+                    Duration duration,
+                    Duration warmup,
+                    TrafficMix mix,
+                    int seedTasks,
+                    Path resultsDir) {
+
+    static LoadSettings fromSystemProperties() {
+        return new LoadSettings(
+                System.getProperty("load.model", "both"),
+                Integer.getInteger("load.users", 50),
+                Integer.getInteger("load.rate", 500),
+                DurationStyle.detectAndParse(System.getProperty("load.duration", "60s")),
+                DurationStyle.detectAndParse(System.getProperty("load.warmup", "20s")),
+                TrafficMix.parse(System.getProperty("load.mix", TrafficMix.DEFAULT)),
+                Integer.getInteger("load.seedTasks", 20),
+                Path.of(System.getProperty("load.resultsDir", "build/results/loadtest")));
+    }
+
+    boolean runsClosed() {
+        return "closed".equals(model) || "both".equals(model);
+    }
+
+    boolean runsOpen() {
+        return "open".equals(model) || "both".equals(model);
+    }
+}
@@ -0,0 +1,78 @@
+package ru.oldzoomer.tasks.load;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.oldzoomer.tasks.TasksApplication;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application on the H2 of the {@code test} profile, trusting a {@link LocalJwtIssuer}, and
+ * drives the traffic mix of {@link LoadSettings} against it in the closed and/or open model. Arguments
+ * are passed on to the application, e.g. {@code --spring.datasource.hikari.maximum-pool-size=20}.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadSettings settings = LoadSettings.fromSystemProperties();
+
+        try (LocalJwtIssuer issuer = new LocalJwtIssuer();
+             ConfigurableApplicationContext context = start(issuer, args);
+             LoadDriver driver = new LoadDriver(baseUri(context), users(settings, issuer), settings.mix())) {
+            driver.seed(settings.seedTasks());
+
+            if (!settings.warmup().isZero()) {
+                driver.runClosed(settings.users(), settings.warmup(), new LatencyRecorder());
+            }
+            if (settings.runsClosed()) {
+                LatencyRecorder recorder = new LatencyRecorder();
+                long start = System.nanoTime();
+                driver.runClosed(settings.users(), settings.duration(), recorder);
+                recorder.report("closed", Duration.ofNanos(System.nanoTime() - start), System.out,
+                        settings.resultsDir());
+            }
+            if (settings.runsOpen()) {
+                LatencyRecorder recorder = new LatencyRecorder();
+                long start = System.nanoTime();
+                driver.runOpen(settings.rate(), settings.duration(), recorder);
+                recorder.report("open", Duration.ofNanos(System.nanoTime() - start), System.out,
+                        settings.resultsDir());
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(LocalJwtIssuer issuer, String[] args) {
+        List<String> arguments = new ArrayList<>(List.of("--server.port=0",
+                "--spring.security.oauth2.resourceserver.jwt.issuer-uri=" + issuer.issuerUri(),
+                "--spring.security.oauth2.resourceserver.jwt.jwk-set-uri=" + issuer.jwkSetUri(),
+                "--tasks.security.jwks.prefetch=true",
+                "--logging.level.root=warn"));
+        arguments.addAll(List.of(args));
+        return new SpringApplicationBuilder(TasksApplication.class)
+                .profiles("test")
+                .run(arguments.toArray(String[]::new));
+    }
+
+    private static URI baseUri(ConfigurableApplicationContext context) {
+        return URI.create("http://localhost:"
+                + context.getEnvironment().getRequiredProperty("local.server.port", Integer.class));
+    }
+
+    private static LoadUser[] users(LoadSettings settings, LocalJwtIssuer issuer) {
+        Duration lifetime = settings.warmup()
+                .plus(settings.duration().multipliedBy(2))
+                .plus(Duration.ofMinutes(10));
+        LoadUser[] users = new LoadUser[settings.users()];
+        for (int i = 0; i < users.length; i++) {
+            String email = "user" + i + "@load.test";
+            users[i] = new LoadUser(email, "Bearer " + issuer.tokenFor(email, lifetime));
+        }
+        return users;
+    }
+}
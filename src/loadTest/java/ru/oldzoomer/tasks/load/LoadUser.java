@@ -0,0 +1,7 @@
+package ru.oldzoomer.tasks.load;
+
+/**
+ * A user of the run and the value of its {@code Authorization} header.
+ */
+record LoadUser(String email, String authorization) {
+}
@@ -0,0 +1,90 @@
+package ru.oldzoomer.tasks.load;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stand-in for Keycloak: signs tokens with a key generated at start and serves its JWK set at the
+ * Keycloak certs endpoint of the realm.
+ */
+final class LocalJwtIssuer implements AutoCloseable {
+    private static final String REALM_PATH = "/realms/load";
+    private static final String CERTS_PATH = REALM_PATH + "/protocol/openid-connect/certs";
+
+    private final HttpServer server;
+    private final JwtEncoder encoder;
+
+    LocalJwtIssuer() throws IOException, NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        RSAKey key = new RSAKey.Builder((RSAPublicKey) keyPair.getPublic())
+                .privateKey((RSAPrivateKey) keyPair.getPrivate())
+                .keyID("load")
+                .build();
+        encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(key)));
+
+        byte[] jwkSet = new JWKSet(key.toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext(CERTS_PATH, exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, jwkSet.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(jwkSet);
+            }
+        });
+        server.start();
+    }
+
+    String issuerUri() {
+        return "http://localhost:" + server.getAddress().getPort() + REALM_PATH;
+    }
+
+    String jwkSetUri() {
+        return "http://localhost:" + server.getAddress().getPort() + CERTS_PATH;
+    }
+
+    /**
+     * Token of {@code email} with the realm role {@code user}, valid for {@code lifetime}.
+     */
+    String tokenFor(String email, Duration lifetime) {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer(issuerUri())
+                .subject(email)
+                .issuedAt(now)
+                .expiresAt(now.plus(lifetime))
+                .claim("email", email)
+                .claim("realm_access", Map.of("roles", List.of("user", "offline_access")))
+                .build();
+        JwsHeader header = JwsHeader.with(SignatureAlgorithm.RS256).keyId("load").build();
+        return encoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,97 @@
+package ru.oldzoomer.tasks.load;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Calls of {@code TaskController} and {@code CommentsController} the traffic mix is made of.
+ */
+enum Operation {
+    CREATE_TASK("task.create") {
+        @Override
+        HttpRequest request(URI baseUri, LoadUser user, LoadUser other, long taskId) {
+            String body = """
+                    {"name":"Load task","description":"Created by the load test","status":"PENDING",\
+                    "priority":"MEDIUM","assignedEmail":"%s"}""".formatted(other.email());
+            return post(baseUri, "/api/1.0/tasks/create", user, body);
+        }
+    },
+    GET_TASK("task.get") {
+        @Override
+        HttpRequest request(URI baseUri, LoadUser user, LoadUser other, long taskId) {
+            return get(baseUri, "/api/1.0/tasks/get/" + taskId, user);
+        }
+    },
+    LIST_TASKS("task.list") {
+        @Override
+        HttpRequest request(URI baseUri, LoadUser user, LoadUser other, long taskId) {
+            return get(baseUri, "/api/1.0/tasks/get?start=0&end=20&email=" + user.email(), user);
+        }
+    },
+    INBOX("task.inbox") {
+        @Override
+        HttpRequest request(URI baseUri, LoadUser user, LoadUser other, long taskId) {
+            return get(baseUri, "/api/1.0/tasks/inbox?size=20", user);
+        }
+    },
+    CREATE_COMMENT("comment.create") {
+        @Override
+        HttpRequest request(URI baseUri, LoadUser user, LoadUser other, long taskId) {
+            String body = """
+                    {"taskId":%d,"text":"Comment of the load test"}""".formatted(taskId);
+            return post(baseUri, "/api/1.0/comments/create", user, body);
+        }
+    },
+    LIST_COMMENTS("comment.list") {
+        @Override
+        HttpRequest request(URI baseUri, LoadUser user, LoadUser other, long taskId) {
+            return get(baseUri, "/api/1.0/comments/get/task?start=0&end=20&taskId=" + taskId, user);
+        }
+    };
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    static Operation of(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation " + key);
+    }
+
+    /**
+     * The call as made by {@code user}; {@code other} is a user to assign to, {@code taskId} an existing task.
+     */
+    abstract HttpRequest request(URI baseUri, LoadUser user, LoadUser other, long taskId);
+
+    HttpRequest request(URI baseUri, LoadUser[] users, long[] taskIds) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return request(baseUri, users[random.nextInt(users.length)], users[random.nextInt(users.length)],
+                taskIds[random.nextInt(taskIds.length)]);
+    }
+
+    private static HttpRequest get(URI baseUri, String path, LoadUser user) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Authorization", user.authorization())
+                .GET()
+                .build();
+    }
+
+    private static HttpRequest post(URI baseUri, String path, LoadUser user, String body) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Authorization", user.authorization())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
@@ -0,0 +1,209 @@
+package ru.oldzoomer.tasks.load;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Starts the unpacked application jar in fresh JVMs with and without the JVM AOT cache
+ * ({@code -XX:AOTCache}) and the AOT-processed context ({@code spring.aot.enabled}), and reports for
+ * each combination the startup time logged by Spring Boot and the time from launching the JVM until
+ * an authenticated {@code GET /api/1.0/tasks/stats} first answers.
+ * <p>
+ * The caches are recorded beforehand the way the Docker build does, by a training run of the same
+ * jar. Tokens come from a {@link LocalJwtIssuer}; the database is the one the jar is configured for,
+ * and arguments are passed on to the application, e.g. {@code --spring.datasource.url=...}. One
+ * unmeasured start applies the migrations first.
+ */
+public final class StartupTest {
+    private static final Pattern STARTED =
+            Pattern.compile("Started \\w+ in ([\\d.]+) seconds \\(process running for ([\\d.]+)\\)");
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+
+    private StartupTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(System.getProperty("startup.jar", "build/extracted/tasks-0.0.1-SNAPSHOT.jar"))
+                .toAbsolutePath();
+        int runs = Integer.getInteger("startup.runs", 5);
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalArgumentException("No unpacked application jar at " + jar);
+        }
+
+        try (LocalJwtIssuer issuer = new LocalJwtIssuer()) {
+            Launcher launcher = new Launcher(jar, issuer, List.of(args));
+            for (boolean springAot : List.of(true, false)) {
+                launcher.train(springAot);
+            }
+            launcher.start(new Mode(false, false));
+
+            PrintStream out = System.out;
+            out.printf("%-28s %12s %12s %12s%n", "mode", "started (s)", "process (s)", "first (ms)");
+            for (Mode mode : List.of(new Mode(true, true), new Mode(false, true), new Mode(true, false),
+                    new Mode(false, false))) {
+                List<Start> starts = new ArrayList<>();
+                for (int run = 0; run < runs; run++) {
+                    starts.add(launcher.start(mode));
+                }
+                out.printf(Locale.ROOT, "%-28s %12.3f %12.3f %12d%n", mode,
+                        median(starts.stream().map(Start::startedSeconds).toList()),
+                        median(starts.stream().map(Start::processSeconds).toList()),
+                        Math.round(median(starts.stream().map(start -> (double) start.firstRequest().toMillis())
+                                .toList())));
+            }
+            out.printf("medians of %d runs per mode%n", runs);
+        }
+    }
+
+    private static double median(List<Double> values) {
+        List<Double> sorted = values.stream().sorted().toList();
+        int middle = sorted.size() / 2;
+        return sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+    }
+
+    /**
+     * @param aotCache  run with the JVM AOT cache recorded for the same {@code springAot}
+     * @param springAot run the AOT-processed context
+     */
+    private record Mode(boolean aotCache, boolean springAot) {
+        @Override
+        public String toString() {
+            return (aotCache ? "AOTCache" : "no AOTCache") + ", " + (springAot ? "spring.aot" : "no spring.aot");
+        }
+    }
+
+    /**
+     * @param startedSeconds time of the {@code Started ... in} line
+     * @param processSeconds time since the JVM started, of the same line
+     * @param firstRequest   time from launching the JVM until the first answer
+     */
+    private record Start(double startedSeconds, double processSeconds, Duration firstRequest) {
+    }
+
+    private static final class Launcher {
+        private final String java = ProcessHandle.current().info().command().orElse("java");
+        private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        private final Path jar;
+        private final LocalJwtIssuer issuer;
+        private final List<String> appArgs;
+        private final String authorization;
+
+        private Launcher(Path jar, LocalJwtIssuer issuer, List<String> appArgs) {
+            this.jar = jar;
+            this.issuer = issuer;
+            this.appArgs = appArgs;
+            this.authorization = "Bearer " + issuer.tokenFor("startup@load.test", Duration.ofHours(2));
+        }
+
+        /**
+         * Records the JVM AOT cache as the Docker build does: the context is refreshed once and the
+         * JVM exits.
+         */
+        private void train(boolean springAot) throws IOException, InterruptedException {
+            List<String> command = List.of(java, "-XX:AOTCacheOutput=" + cacheOf(springAot),
+                    "-Dspring.aot.enabled=" + springAot, "-Dspring.context.exit=onRefresh",
+                    "-Dspring.profiles.active=training", "-jar", jar.toString());
+            Process process = new ProcessBuilder(command)
+                    .directory(jar.getParent().toFile())
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            if (process.waitFor() != 0) {
+                throw new IllegalStateException("Training run failed: " + String.join(" ", command));
+            }
+        }
+
+        private Start start(Mode mode) throws IOException, InterruptedException {
+            int port = freePort();
+            List<String> command = new ArrayList<>(List.of(java));
+            if (mode.aotCache()) {
+                command.add("-XX:AOTCache=" + cacheOf(mode.springAot()));
+            }
+            command.addAll(List.of("-Dspring.aot.enabled=" + mode.springAot(), "-jar", jar.toString(),
+                    "--server.port=" + port,
+                    "--spring.security.oauth2.resourceserver.jwt.issuer-uri=" + issuer.issuerUri(),
+                    "--spring.security.oauth2.resourceserver.jwt.jwk-set-uri=" + issuer.jwkSetUri()));
+            command.addAll(appArgs);
+
+            Path log = Files.createTempFile("startup", ".log");
+            long launched = System.nanoTime();
+            Process process = new ProcessBuilder(command)
+                    .directory(jar.getParent().toFile())
+                    .redirectErrorStream(true)
+                    .redirectOutput(log.toFile())
+                    .start();
+            try {
+                Duration firstRequest = awaitFirstAnswer(process, port, launched);
+                Matcher started = awaitStartedLine(log);
+                Files.delete(log);
+                return new Start(Double.parseDouble(started.group(1)), Double.parseDouble(started.group(2)),
+                        firstRequest);
+            } finally {
+                process.destroy();
+                process.waitFor();
+            }
+        }
+
+        private Duration awaitFirstAnswer(Process process, int port, long launched) throws InterruptedException {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/1.0/tasks/stats"))
+                    .header("Authorization", authorization)
+                    .build();
+            while (System.nanoTime() - launched < START_TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue());
+                }
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("First request answered " + response.statusCode());
+                    }
+                    return Duration.ofNanos(System.nanoTime() - launched);
+                } catch (IOException e) {
+                    Thread.sleep(5);
+                }
+            }
+            throw new IllegalStateException("Application did not answer within " + START_TIMEOUT);
+        }
+
+        /*
+         * The server accepts requests before the context has finished refreshing, so the first
+         * answer may come before the line is logged.
+         */
+        private static Matcher awaitStartedLine(Path log) throws IOException, InterruptedException {
+            for (int attempt = 0; attempt < 1000; attempt++) {
+                Matcher started = STARTED.matcher(Files.readString(log));
+                if (started.find()) {
+                    return started;
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("No startup line in " + log);
+        }
+
+        private Path cacheOf(boolean springAot) {
+            return jar.resolveSibling(springAot ? "startup-spring-aot.aot" : "startup.aot");
+        }
+
+        private static int freePort() {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                return socket.getLocalPort();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
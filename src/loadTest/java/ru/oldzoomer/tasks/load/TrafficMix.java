@@ -0,0 +1,55 @@
+package ru.oldzoomer.tasks.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Weighted choice of the next {@link Operation}.
+ */
+final class TrafficMix {
+    static final String DEFAULT =
+            "task.create=5,task.get=30,task.list=20,task.inbox=15,comment.create=10,comment.list=20";
+
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    private TrafficMix(Operation[] operations, int[] cumulativeWeights) {
+        this.operations = operations;
+        this.cumulativeWeights = cumulativeWeights;
+    }
+
+    static TrafficMix parse(String mix) {
+        List<Operation> operations = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] keyAndWeight = entry.trim().split("=");
+            int weight = Integer.parseInt(keyAndWeight[1].trim());
+            if (weight > 0) {
+                operations.add(Operation.of(keyAndWeight[0].trim()));
+                weights.add(weight);
+            }
+        }
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("Traffic mix has no operations: " + mix);
+        }
+
+        int[] cumulativeWeights = new int[weights.size()];
+        int total = 0;
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            total += weights.get(i);
+            cumulativeWeights[i] = total;
+        }
+        return new TrafficMix(operations.toArray(Operation[]::new), cumulativeWeights);
+    }
+
+    Operation next() {
+        int point = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (point < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+}
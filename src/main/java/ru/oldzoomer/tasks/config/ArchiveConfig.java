@@ -0,0 +1,25 @@
+package ru.oldzoomer.tasks.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import ru.oldzoomer.tasks.repo.TaskArchiveRepository;
+
+import javax.sql.DataSource;
+
+/**
+ * The archive is partitioned on PostgreSQL only; elsewhere it is a pair of plain tables.
+ */
+@Configuration
+public class ArchiveConfig {
+
+    @Bean
+    TaskArchiveRepository taskArchiveRepository(DataSource dataSource, JdbcClient jdbcClient,
+                                                @Value("${tasks.database.product:}") String configuredProduct)
+            throws MetaDataAccessException {
+        String databaseProductName = DatabaseProduct.nameOf(dataSource, configuredProduct);
+        return new TaskArchiveRepository(jdbcClient, "PostgreSQL".equals(databaseProductName));
+    }
+}
@@ -0,0 +1,43 @@
+package ru.oldzoomer.tasks.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Bounded in-process caches of task and comment output DTOs by ID.
+ * <p>
+ * Evictions are deferred until the surrounding transaction commits, so a reader can not
+ * re-populate an entry with data that is about to be overwritten. Loads go through
+ * {@code @Cacheable(sync = true)}, and Caffeine blocks an eviction of a key until an
+ * in-flight load of that key completes, so a load racing with a commit is evicted right after.
+ * Hit, miss and eviction statistics are recorded and published as {@code cache.*} metrics.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+    public static final String TASKS = "tasks";
+    public static final String COMMENTS = "comments";
+
+    @Bean
+    CacheManager cacheManager(@Value("${tasks.cache.maximum-size:10000}") long maximumSize,
+                              @Value("${tasks.cache.time-to-live:5m}") Duration timeToLive) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        cacheManager.setCacheNames(List.of(TASKS, COMMENTS));
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,25 @@
+package ru.oldzoomer.tasks.config;
+
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Product name of the database, as configured by {@code tasks.database.product} or else as reported by
+ * the driver. Configuring it spares a connection during context refresh, which the training run of the
+ * startup cache relies on.
+ */
+final class DatabaseProduct {
+
+    private DatabaseProduct() {
+    }
+
+    static String nameOf(DataSource dataSource, String configuredProduct) throws MetaDataAccessException {
+        if (configuredProduct != null && !configuredProduct.isBlank()) {
+            return configuredProduct;
+        }
+        return JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+    }
+}
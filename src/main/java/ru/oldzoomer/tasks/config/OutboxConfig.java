@@ -0,0 +1,28 @@
+package ru.oldzoomer.tasks.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.oldzoomer.tasks.outbox.InMemoryOutboxSink;
+import ru.oldzoomer.tasks.outbox.LoggingOutboxSink;
+import ru.oldzoomer.tasks.outbox.OutboxSink;
+
+/**
+ * Sink of the outbox dispatcher, chosen by {@code tasks.outbox.sink}: {@code log} (default) or {@code memory}.
+ * Other sinks plug in by replacing the {@link OutboxSink} bean.
+ */
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "tasks.outbox.sink", havingValue = "log", matchIfMissing = true)
+    OutboxSink loggingOutboxSink() {
+        return new LoggingOutboxSink();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tasks.outbox.sink", havingValue = "memory")
+    OutboxSink inMemoryOutboxSink() {
+        return new InMemoryOutboxSink();
+    }
+}
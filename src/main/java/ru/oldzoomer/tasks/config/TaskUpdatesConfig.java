@@ -0,0 +1,33 @@
+package ru.oldzoomer.tasks.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import ru.oldzoomer.tasks.mapper.TaskMapper;
+import ru.oldzoomer.tasks.repo.LockingTaskUpdates;
+import ru.oldzoomer.tasks.repo.ReturningTaskUpdates;
+import ru.oldzoomer.tasks.repo.TaskRepository;
+import ru.oldzoomer.tasks.repo.TaskUpdates;
+
+import javax.sql.DataSource;
+
+/**
+ * Picks the single-task edits of the connected database: one {@code UPDATE ... RETURNING} on
+ * PostgreSQL, or a locking read around the guarded update elsewhere.
+ */
+@Configuration
+public class TaskUpdatesConfig {
+
+    @Bean
+    TaskUpdates taskUpdates(DataSource dataSource, JdbcClient jdbcClient, TaskRepository taskRepository,
+                            TaskMapper taskMapper,
+                            @Value("${tasks.database.product:}") String configuredProduct) throws MetaDataAccessException {
+        String databaseProductName = DatabaseProduct.nameOf(dataSource, configuredProduct);
+        if ("PostgreSQL".equals(databaseProductName)) {
+            return new ReturningTaskUpdates(jdbcClient);
+        }
+        return new LockingTaskUpdates(taskRepository, taskMapper);
+    }
+}
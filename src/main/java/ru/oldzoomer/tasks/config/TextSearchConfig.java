@@ -0,0 +1,30 @@
+package ru.oldzoomer.tasks.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import ru.oldzoomer.tasks.repo.LikeTaskTextSearch;
+import ru.oldzoomer.tasks.repo.PostgresTaskTextSearch;
+import ru.oldzoomer.tasks.repo.TaskTextSearch;
+
+import javax.sql.DataSource;
+
+/**
+ * Picks the text search of the connected database: PostgreSQL full-text search,
+ * or the LIKE-based fallback elsewhere.
+ */
+@Configuration
+public class TextSearchConfig {
+
+    @Bean
+    TaskTextSearch taskTextSearch(DataSource dataSource, JdbcClient jdbcClient,
+                                  @Value("${tasks.database.product:}") String configuredProduct) throws MetaDataAccessException {
+        String databaseProductName = DatabaseProduct.nameOf(dataSource, configuredProduct);
+        if ("PostgreSQL".equals(databaseProductName)) {
+            return new PostgresTaskTextSearch(jdbcClient);
+        }
+        return new LikeTaskTextSearch(jdbcClient);
+    }
+}
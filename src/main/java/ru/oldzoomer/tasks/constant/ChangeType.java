@@ -0,0 +1,10 @@
+package ru.oldzoomer.tasks.constant;
+
+public enum ChangeType {
+    TASK_CREATED, TASK_UPDATED, TASK_DELETED,
+    COMMENT_CREATED, COMMENT_UPDATED, COMMENT_DELETED,
+    /**
+     * Events were lost for the subscriber, the client has to reload its data.
+     */
+    RESET
+}
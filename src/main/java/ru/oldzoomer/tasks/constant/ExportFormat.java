@@ -0,0 +1,5 @@
+package ru.oldzoomer.tasks.constant;
+
+public enum ExportFormat {
+    NDJSON, CSV
+}
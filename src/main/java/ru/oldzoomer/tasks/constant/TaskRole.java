@@ -0,0 +1,9 @@
+package ru.oldzoomer.tasks.constant;
+
+/**
+ * Relation of a user to a task in the task statistics.
+ */
+public enum TaskRole {
+    AUTHOR,
+    ASSIGNEE
+}
@@ -0,0 +1,17 @@
+package ru.oldzoomer.tasks.constant;
+
+/**
+ * Sort orders of the task search. Only orders that an index can deliver are listed:
+ * {@code id} or {@code (priority, id)}, both ascending or both descending.
+ */
+public enum TaskSearchOrder {
+    ID, ID_DESC, PRIORITY, PRIORITY_DESC;
+
+    public boolean byPriority() {
+        return this == PRIORITY || this == PRIORITY_DESC;
+    }
+
+    public boolean descending() {
+        return this == ID_DESC || this == PRIORITY_DESC;
+    }
+}
@@ -0,0 +1,30 @@
+package ru.oldzoomer.tasks.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.oldzoomer.tasks.service.ChangeFeedService;
+
+@RestController
+@RequestMapping("/api/1.0/feed")
+@PreAuthorize("isAuthenticated()")
+@AllArgsConstructor
+public class ChangeFeedController {
+    private final ChangeFeedService changeFeedService;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Subscribe to changes of the tasks authored by or assigned to the user, and of their comments")
+    public SseEmitter subscribe(@RequestHeader(value = "Last-Event-ID", required = false) @Parameter(description = "ID of the last received event")
+                                Long lastEventId,
+                                Authentication authentication) {
+        return changeFeedService.subscribe(authentication.getName(), lastEventId);
+    }
+}
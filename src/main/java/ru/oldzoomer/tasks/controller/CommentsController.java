@@ -8,13 +8,18 @@ import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.oldzoomer.tasks.dto.input.Cursor;
 import ru.oldzoomer.tasks.dto.input.comments.CreateCommentDto;
 import ru.oldzoomer.tasks.dto.input.comments.EditCommentDto;
+import ru.oldzoomer.tasks.dto.output.CursorSlice;
 import ru.oldzoomer.tasks.dto.output.Response;
 import ru.oldzoomer.tasks.dto.output.comments.CommentOutputDto;
 import ru.oldzoomer.tasks.entity.Comments;
@@ -27,6 +32,8 @@ import ru.oldzoomer.tasks.service.CommentsService;
 @PreAuthorize("isAuthenticated()")
 @AllArgsConstructor
 public class CommentsController {
+    private static final int MAX_SCROLL_SIZE = 100;
+
     private final CommentsService commentsService;
     private final CommentMapper commentMapper;
 
@@ -49,14 +56,18 @@ public class CommentsController {
     @Operation(summary = "Edit a comment")
     public ResponseEntity<Response<CommentOutputDto>> editComment(@Parameter(description = "Comment changes", required = true)
                             @RequestBody @Valid EditCommentDto changes,
+                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                             Authentication authentication) {
         String authorEmail = authentication.getName();
         Comments changes1 = commentMapper.map(changes);
 
-        Comments updatedComment = commentsService.edit(changes.commentId(), changes1, authorEmail);
+        Comments updatedComment = commentsService.edit(changes.commentId(), changes1,
+                EntityTags.parseVersions(ifMatch), authorEmail);
         CommentOutputDto commentOutputDto = commentMapper.map(updatedComment);
 
-        return ResponseEntity.ok(new Response<>(commentOutputDto, "Comment updated successfully", true));
+        return ResponseEntity.ok()
+                .eTag(EntityTags.of(commentOutputDto.version()))
+                .body(new Response<>(commentOutputDto, "Comment updated successfully", true));
     }
 
     @DeleteMapping("/{id}/delete")
@@ -79,42 +90,112 @@ public class CommentsController {
             })
     public ResponseEntity<Response<CommentOutputDto>> getComment(@PathVariable
                                        @Parameter(description = "ID of comment", required = true)
-                                       Long id) {
-        Comments comment = commentsService.getComment(id);
-        CommentOutputDto commentOutputDto = commentMapper.map(comment);
+                                       Long id,
+                                       WebRequest request) {
+        CommentOutputDto commentOutputDto = commentsService.getComment(id);
+
+        String eTag = EntityTags.of(commentOutputDto.version());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
 
-        return ResponseEntity.ok(new Response<>(commentOutputDto, "Comment retrieved successfully", true));
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(new Response<>(commentOutputDto, "Comment retrieved successfully", true));
     }
 
     @GetMapping("/get/user")
     public ResponseEntity<Response<Page<CommentOutputDto>>> getAllCommentsForUser(@RequestParam int start,
                                                         @RequestParam int end,
-                                                        @RequestParam String email) {
+                                                        @RequestParam String email,
+                                                        WebRequest request) {
         if ((end - start) < 1) {
             throw new PaginationOutOfRangeException("Out of range!");
         }
 
         Pageable pageable = PageRequest.of(start, end - start);
-        Page<Comments> multipleCommentsForUser = commentsService.getMultipleCommentsForUser(email, pageable);
-
-        Page<CommentOutputDto> commentOutputDtos = multipleCommentsForUser.map(commentMapper::map);
+        Page<CommentOutputDto> commentOutputDtos = commentsService.getMultipleCommentsForUser(email, pageable);
 
-        return ResponseEntity.ok(new Response<>(commentOutputDtos, "Comments retrieved successfully", true));
+        return respond(commentOutputDtos, pageETag(commentOutputDtos), request);
     }
 
     @GetMapping("/get/task")
     public ResponseEntity<Response<Page<CommentOutputDto>>> getAllCommentsForTask(@RequestParam int start,
                                                         @RequestParam int end,
-                                                        @RequestParam long taskId) {
+                                                        @RequestParam long taskId,
+                                                        WebRequest request) {
         if ((end - start) < 1) {
             throw new PaginationOutOfRangeException("Out of range!");
         }
 
         Pageable pageable = PageRequest.of(start, end - start);
-        Page<Comments> multipleCommentsForTask = commentsService.getMultipleCommentsForTask(taskId, pageable);
+        Page<CommentOutputDto> commentOutputDtos = commentsService.getMultipleCommentsForTask(taskId, pageable);
+
+        return respond(commentOutputDtos, pageETag(commentOutputDtos), request);
+    }
+
+    @GetMapping("/scroll/user")
+    @Operation(summary = "Scroll through comments by user using a cursor")
+    public ResponseEntity<Response<CursorSlice<CommentOutputDto>>> scrollCommentsForUser(@RequestParam(required = false) String after,
+                                                                                         @RequestParam(defaultValue = "20") int size,
+                                                                                         @RequestParam String email,
+                                                                                         WebRequest request) {
+        if (size < 1 || size > MAX_SCROLL_SIZE) {
+            throw new PaginationOutOfRangeException("Out of range!");
+        }
+
+        Slice<CommentOutputDto> comments = commentsService.scrollCommentsForUser(email, Cursor.decode(after), size);
+
+        return respond(comments, request);
+    }
+
+    @GetMapping("/scroll/task")
+    @Operation(summary = "Scroll through comments by task using a cursor")
+    public ResponseEntity<Response<CursorSlice<CommentOutputDto>>> scrollCommentsForTask(@RequestParam(required = false) String after,
+                                                                                         @RequestParam(defaultValue = "20") int size,
+                                                                                         @RequestParam long taskId,
+                                                                                         WebRequest request) {
+        if (size < 1 || size > MAX_SCROLL_SIZE) {
+            throw new PaginationOutOfRangeException("Out of range!");
+        }
+
+        Slice<CommentOutputDto> comments = commentsService.scrollCommentsForTask(taskId, Cursor.decode(after), size);
+
+        return respond(comments, request);
+    }
+
+    private ResponseEntity<Response<Page<CommentOutputDto>>> respond(Page<CommentOutputDto> comments,
+                                                                     String eTag,
+                                                                     WebRequest request) {
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
 
-        Page<CommentOutputDto> commentOutputDtos = multipleCommentsForTask.map(commentMapper::map);
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(new Response<>(comments, "Comments retrieved successfully", true));
+    }
+
+    private ResponseEntity<Response<CursorSlice<CommentOutputDto>>> respond(Slice<CommentOutputDto> comments,
+                                                                            WebRequest request) {
+        String eTag = EntityTags.of(comments.getContent(), CommentOutputDto::id, CommentOutputDto::version,
+                comments.hasNext() ? 1 : 0);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+
+        String nextCursor = comments.hasNext()
+                ? Cursor.of(comments.getContent().getLast().id()).encode()
+                : null;
+
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(new Response<>(new CursorSlice<>(comments.getContent(), nextCursor),
+                        "Comments retrieved successfully", true));
+    }
 
-        return ResponseEntity.ok(new Response<>(commentOutputDtos, "Comments retrieved successfully", true));
+    private static String pageETag(Page<CommentOutputDto> comments) {
+        return EntityTags.of(comments.getContent(), CommentOutputDto::id, CommentOutputDto::version,
+                comments.getNumber(), comments.getSize(), comments.getTotalElements());
     }
-}
+}
\ No newline at end of file
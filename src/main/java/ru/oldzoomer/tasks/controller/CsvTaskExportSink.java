@@ -0,0 +1,61 @@
+package ru.oldzoomer.tasks.controller;
+
+import ru.oldzoomer.tasks.dto.output.comments.CommentExportDto;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskOutputDto;
+import ru.oldzoomer.tasks.service.TaskExportSink;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Writes RFC 4180 CSV with one row per task or comment, told apart by the {@code type} column.
+ */
+final class CsvTaskExportSink implements TaskExportSink {
+    private static final String HEADER =
+            "type,id,task_id,name,description,status,priority,author_email,assigned_email,text,version";
+
+    private final Writer writer;
+
+    CsvTaskExportSink(Writer writer) {
+        this.writer = writer;
+        writeRow(HEADER.split(","));
+    }
+
+    @Override
+    public void task(TaskOutputDto task) {
+        writeRow("task", String.valueOf(task.id()), "", task.name(), task.description(),
+                task.status().name(), task.priority().name(), task.authorEmail(), task.assignedEmail(), "",
+                String.valueOf(task.version()));
+    }
+
+    @Override
+    public void comment(CommentExportDto comment) {
+        writeRow("comment", String.valueOf(comment.id()), String.valueOf(comment.taskId()), "", "",
+                "", "", comment.authorEmail(), "", comment.text(), String.valueOf(comment.version()));
+    }
+
+    private void writeRow(String... values) {
+        try {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(values[i]));
+            }
+            writer.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,22 +1,27 @@
 package ru.oldzoomer.tasks.controller;
 
 import lombok.extern.log4j.Log4j2;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import ru.oldzoomer.tasks.dto.output.Response;
+import ru.oldzoomer.tasks.exception.BatchSizeOutOfRangeException;
 import ru.oldzoomer.tasks.exception.CommentNotFoundException;
 import ru.oldzoomer.tasks.exception.ForbiddenChangesException;
+import ru.oldzoomer.tasks.exception.InvalidCursorException;
+import ru.oldzoomer.tasks.exception.InvalidSearchException;
 import ru.oldzoomer.tasks.exception.PaginationOutOfRangeException;
+import ru.oldzoomer.tasks.exception.PreconditionFailedException;
 import ru.oldzoomer.tasks.exception.TaskNotFoundException;
 
 @ControllerAdvice
 @Log4j2
 public class CustomExceptionResolver {
 
-    @ExceptionHandler({CommentNotFoundException.class,
-            PaginationOutOfRangeException.class, TaskNotFoundException.class})
+    @ExceptionHandler({BatchSizeOutOfRangeException.class, CommentNotFoundException.class, InvalidCursorException.class,
+            InvalidSearchException.class, PaginationOutOfRangeException.class, TaskNotFoundException.class})
     public ResponseEntity<Response<Object>> badRequestHandler(Throwable e) {
         log.error(e.getMessage());
         Response<Object> response = new Response<>(e.getMessage(), false);
@@ -30,4 +35,11 @@ public class CustomExceptionResolver {
         return new ResponseEntity<>(response, HttpStatus.FORBIDDEN);
     }
 
+    @ExceptionHandler({PreconditionFailedException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<Response<Object>> preconditionFailedHandler(Throwable e) {
+        log.error(e.getMessage());
+        Response<Object> response = new Response<>(e.getMessage(), false);
+        return new ResponseEntity<>(response, HttpStatus.PRECONDITION_FAILED);
+    }
+
 }
@@ -0,0 +1,105 @@
+package ru.oldzoomer.tasks.controller;
+
+import ru.oldzoomer.tasks.exception.PreconditionFailedException;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+/**
+ * Strong entity tags derived from the {@code @Version} of tasks and comments.
+ * A single resource is tagged with its version, a list with a digest of the IDs
+ * and versions of its items plus whatever else its body depends on. Tasks also
+ * carry their comment count, which changes without moving the version.
+ */
+final class EntityTags {
+    private EntityTags() {
+    }
+
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    static String of(long version, long commentCount) {
+        return "\"" + version + "." + commentCount + "\"";
+    }
+
+    static <T> String of(List<T> items, ToLongFunction<T> id, ToLongFunction<T> version, long... extra) {
+        return of(items, List.of(id, version), extra);
+    }
+
+    static <T> String of(List<T> items, ToLongFunction<T> id, ToLongFunction<T> version,
+                         ToLongFunction<T> commentCount, long... extra) {
+        return of(items, List.of(id, version, commentCount), extra);
+    }
+
+    private static <T> String of(List<T> items, List<ToLongFunction<T>> fields, long[] extra) {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES * (items.size() * fields.size() + extra.length));
+        for (T item : items) {
+            for (ToLongFunction<T> field : fields) {
+                buffer.putLong(field.applyAsLong(item));
+            }
+        }
+        for (long value : extra) {
+            buffer.putLong(value);
+        }
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(buffer.array());
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Parses an {@code If-Match} header into the versions it accepts; {@code null} for absent or {@code *}.
+     * A list of tags matches when any of its strong tags does, while weak tags never match, as If-Match
+     * compares strongly. The comment count of a task tag is ignored, so only edits of the task itself
+     * fail the precondition.
+     */
+    static Set<Long> parseVersions(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+            return null;
+        }
+
+        Set<Long> versions = new HashSet<>();
+        int position = 0;
+        while (position < ifMatch.length()) {
+            char c = ifMatch.charAt(position);
+            if (c == ',' || Character.isWhitespace(c)) {
+                position++;
+                continue;
+            }
+            boolean weak = ifMatch.startsWith("W/", position);
+            int open = weak ? position + 2 : position;
+            int close = open < ifMatch.length() && ifMatch.charAt(open) == '"' ? ifMatch.indexOf('"', open + 1) : -1;
+            if (close < 0) {
+                throw new PreconditionFailedException("If-Match must be a list of entity tags!");
+            }
+            if (!weak) {
+                versionOf(ifMatch.substring(open + 1, close)).ifPresent(versions::add);
+            }
+            position = close + 1;
+        }
+        if (versions.isEmpty()) {
+            throw new PreconditionFailedException("If-Match does not match the current version!");
+        }
+        return Set.copyOf(versions);
+    }
+
+    private static Optional<Long> versionOf(String opaqueTag) {
+        int dot = opaqueTag.indexOf('.');
+        try {
+            return Optional.of(Long.parseLong(dot < 0 ? opaqueTag : opaqueTag.substring(0, dot)));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
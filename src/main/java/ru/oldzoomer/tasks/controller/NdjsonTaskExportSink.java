@@ -0,0 +1,45 @@
+package ru.oldzoomer.tasks.controller;
+
+import ru.oldzoomer.tasks.dto.output.comments.CommentExportDto;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskOutputDto;
+import ru.oldzoomer.tasks.service.TaskExportSink;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Writes one JSON object per line: {@code {"type":"task","data":{...}}} or {@code {"type":"comment","data":{...}}}.
+ */
+final class NdjsonTaskExportSink implements TaskExportSink {
+    private final ObjectMapper objectMapper;
+    private final Writer writer;
+
+    NdjsonTaskExportSink(ObjectMapper objectMapper, Writer writer) {
+        this.objectMapper = objectMapper;
+        this.writer = writer;
+    }
+
+    @Override
+    public void task(TaskOutputDto task) {
+        writeLine(new Line("task", task));
+    }
+
+    @Override
+    public void comment(CommentExportDto comment) {
+        writeLine(new Line("comment", comment));
+    }
+
+    private void writeLine(Line line) {
+        try {
+            writer.write(objectMapper.writeValueAsString(line));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Line(String type, Object data) {
+    }
+}
@@ -3,31 +3,86 @@ package ru.oldzoomer.tasks.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.AllArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.oldzoomer.tasks.constant.ExportFormat;
+import ru.oldzoomer.tasks.constant.TaskPriority;
+import ru.oldzoomer.tasks.constant.TaskScrollOrder;
+import ru.oldzoomer.tasks.constant.TaskSearchOrder;
+import ru.oldzoomer.tasks.constant.TaskStatus;
+import ru.oldzoomer.tasks.dto.input.Cursor;
 import ru.oldzoomer.tasks.dto.input.tasks.*;
+import ru.oldzoomer.tasks.dto.output.CursorSlice;
 import ru.oldzoomer.tasks.dto.output.Response;
+import ru.oldzoomer.tasks.dto.output.tasks.BatchEditResultDto;
+import ru.oldzoomer.tasks.dto.output.tasks.BatchTaskResultDto;
+import ru.oldzoomer.tasks.dto.output.tasks.ImportResultDto;
 import ru.oldzoomer.tasks.dto.output.tasks.TaskOutputDto;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskSearchHitDto;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskStatisticsDto;
 import ru.oldzoomer.tasks.entity.Task;
+import ru.oldzoomer.tasks.exception.BatchSizeOutOfRangeException;
+import ru.oldzoomer.tasks.exception.InvalidSearchException;
 import ru.oldzoomer.tasks.exception.PaginationOutOfRangeException;
 import ru.oldzoomer.tasks.mapper.TaskMapper;
+import ru.oldzoomer.tasks.service.AssigneeSuggestionService;
+import ru.oldzoomer.tasks.service.TaskExportService;
+import ru.oldzoomer.tasks.service.TaskExportSink;
+import ru.oldzoomer.tasks.service.TaskImportService;
 import ru.oldzoomer.tasks.service.TaskService;
+import ru.oldzoomer.tasks.service.TaskStatisticsService;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 @RestController
 @RequestMapping("/api/1.0/tasks")
 @PreAuthorize("isAuthenticated()")
 @AllArgsConstructor
 public class TaskController {
+    private static final int MAX_SCROLL_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_TEXT_SEARCH_RESULTS = 1000;
+    private static final int MAX_TEXT_QUERY_LENGTH = 200;
+    private static final int MAX_SUGGESTIONS = 20;
+    private static final int MIN_SUGGESTION_PREFIX_LENGTH = 2;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson;charset=UTF-8");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
     private final TaskService taskService;
+    private final TaskExportService taskExportService;
+    private final TaskImportService taskImportService;
+    private final ObjectMapper objectMapper;
+    private final AssigneeSuggestionService assigneeSuggestionService;
+    private final TaskStatisticsService taskStatisticsService;
     private final TaskMapper taskMapper;
+    private final Validator validator;
 
     @PostMapping("/create")
     @Operation(summary = "Create a task")
@@ -44,6 +99,58 @@ public class TaskController {
                 .body(new Response<>(taskOutputDto, "Task created successfully", true));
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Create multiple tasks in one transaction",
+            responses = {
+                    @ApiResponse(description = "Result of every item, in the order of the request",
+                            useReturnTypeSchema = true)
+            })
+    public ResponseEntity<Response<List<BatchTaskResultDto>>> createTasks(@Parameter(description = "List of task data", required = true)
+                                                                          @RequestBody List<CreateTaskDto> createTaskDtos,
+                                                                          Authentication authentication) {
+        if (createTaskDtos.isEmpty() || createTaskDtos.size() > MAX_BATCH_SIZE) {
+            throw new BatchSizeOutOfRangeException("Batch must contain from 1 to " + MAX_BATCH_SIZE + " tasks!");
+        }
+
+        String authorEmail = authentication.getName();
+        BatchTaskResultDto[] results = new BatchTaskResultDto[createTaskDtos.size()];
+        List<Integer> validIndexes = new ArrayList<>();
+        List<Task> validTasks = new ArrayList<>();
+
+        for (int i = 0; i < createTaskDtos.size(); i++) {
+            CreateTaskDto createTaskDto = createTaskDtos.get(i);
+            if (createTaskDto == null) {
+                results[i] = new BatchTaskResultDto(i, false, null, List.of("Task should not be null"));
+                continue;
+            }
+
+            Set<ConstraintViolation<CreateTaskDto>> violations = validator.validate(createTaskDto);
+            if (!violations.isEmpty()) {
+                List<String> errors = violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .toList();
+                results[i] = new BatchTaskResultDto(i, false, null, errors);
+                continue;
+            }
+
+            validIndexes.add(i);
+            validTasks.add(taskMapper.map(createTaskDto));
+        }
+
+        if (!validTasks.isEmpty()) {
+            Iterator<Task> created = taskService.createAll(validTasks, authorEmail).iterator();
+            for (int index : validIndexes) {
+                results[index] = new BatchTaskResultDto(index, true, taskMapper.map(created.next()), List.of());
+            }
+        }
+
+        boolean success = validTasks.size() == createTaskDtos.size();
+        String message = validTasks.size() + " of " + createTaskDtos.size() + " tasks created";
+        return ResponseEntity.status(validTasks.isEmpty() ? HttpStatus.BAD_REQUEST : HttpStatus.CREATED)
+                .body(new Response<>(Arrays.asList(results), message, success));
+    }
+
     @DeleteMapping("/{id}/delete")
     @Operation(summary = "Delete a task")
     public ResponseEntity<Response<String>> deleteTask(@Parameter(description = "Task ID", required = true)
@@ -61,13 +168,17 @@ public class TaskController {
     public ResponseEntity<Response<TaskOutputDto>> editStatus(@Parameter(description = "Status edit data", required = true)
                                                               @RequestBody @Valid EditTaskStatusDto editTaskStatusDto,
                                                               @PathVariable Long id,
+                                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) @Parameter(description = "Entity tags of the accepted versions of the task")
+                                                              String ifMatch,
                                                               Authentication authentication) {
         String authorEmail = authentication.getName();
 
-        Task task = taskService.editStatus(id, editTaskStatusDto.status(), authorEmail);
-        TaskOutputDto taskOutputDto = taskMapper.map(task);
+        TaskOutputDto taskOutputDto = taskService.editStatus(id, editTaskStatusDto.status(),
+                EntityTags.parseVersions(ifMatch), authorEmail);
 
-        return ResponseEntity.ok(new Response<>(taskOutputDto, "Task status updated successfully", true));
+        return ResponseEntity.ok()
+                .eTag(EntityTags.of(taskOutputDto.version(), taskOutputDto.commentCount()))
+                .body(new Response<>(taskOutputDto, "Task status updated successfully", true));
     }
 
     @PutMapping("/{id}/edit/priority")
@@ -75,13 +186,17 @@ public class TaskController {
     public ResponseEntity<Response<TaskOutputDto>> editPriority(@Parameter(description = "Priority edit data", required = true)
                                                                 @RequestBody @Valid EditTaskPriorityDto editTaskPriorityDto,
                                                                 @PathVariable Long id,
+                                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) @Parameter(description = "Entity tags of the accepted versions of the task")
+                                                                String ifMatch,
                                                                 Authentication authentication) {
         String authorEmail = authentication.getName();
 
-        Task task = taskService.editPriority(id, editTaskPriorityDto.priority(), authorEmail);
-        TaskOutputDto taskOutputDto = taskMapper.map(task);
+        TaskOutputDto taskOutputDto = taskService.editPriority(id, editTaskPriorityDto.priority(),
+                EntityTags.parseVersions(ifMatch), authorEmail);
 
-        return ResponseEntity.ok(new Response<>(taskOutputDto, "Task priority updated successfully", true));
+        return ResponseEntity.ok()
+                .eTag(EntityTags.of(taskOutputDto.version(), taskOutputDto.commentCount()))
+                .body(new Response<>(taskOutputDto, "Task priority updated successfully", true));
     }
 
     @PutMapping("/{id}/edit/description")
@@ -89,14 +204,18 @@ public class TaskController {
     public ResponseEntity<Response<TaskOutputDto>> editNameAndDescription(@Parameter(description = "Description edit data", required = true)
                                                                           @RequestBody @Valid EditTaskDto editTaskDto,
                                                                           @PathVariable Long id,
+                                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) @Parameter(description = "Entity tags of the accepted versions of the task")
+                                                                          String ifMatch,
                                                                           Authentication authentication) {
         String authorEmail = authentication.getName();
         Task task = taskMapper.map(editTaskDto);
 
-        Task updatedTask = taskService.editNameAndDescription(id, task, authorEmail);
-        TaskOutputDto taskOutputDto = taskMapper.map(updatedTask);
+        TaskOutputDto taskOutputDto = taskService.editNameAndDescription(id, task,
+                EntityTags.parseVersions(ifMatch), authorEmail);
 
-        return ResponseEntity.ok(new Response<>(taskOutputDto, "Task description updated successfully", true));
+        return ResponseEntity.ok()
+                .eTag(EntityTags.of(taskOutputDto.version(), taskOutputDto.commentCount()))
+                .body(new Response<>(taskOutputDto, "Task description updated successfully", true));
     }
 
     @PutMapping("/{id}/edit/assigned")
@@ -104,13 +223,59 @@ public class TaskController {
     public ResponseEntity<Response<TaskOutputDto>> editAssignedUser(@Parameter(description = "Assigned user edit data", required = true)
                                                                     @RequestBody @Valid EditTaskAssignedUserDto editTaskAssignedUserDto,
                                                                     @PathVariable Long id,
+                                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) @Parameter(description = "Entity tags of the accepted versions of the task")
+                                                                    String ifMatch,
                                                                     Authentication authentication) {
         String authorEmail = authentication.getName();
 
-        Task task = taskService.editAssignedUser(id, editTaskAssignedUserDto.assignedEmail(), authorEmail);
-        TaskOutputDto taskOutputDto = taskMapper.map(task);
+        TaskOutputDto taskOutputDto = taskService.editAssignedUser(id, editTaskAssignedUserDto.assignedEmail(),
+                EntityTags.parseVersions(ifMatch), authorEmail);
+
+        return ResponseEntity.ok()
+                .eTag(EntityTags.of(taskOutputDto.version(), taskOutputDto.commentCount()))
+                .body(new Response<>(taskOutputDto, "Task assigned user updated successfully", true));
+    }
+
+    @PutMapping("/batch/edit/status")
+    @Operation(summary = "Edit status of multiple tasks")
+    public ResponseEntity<Response<BatchEditResultDto>> editStatusOfAll(@Parameter(description = "Task IDs and the new status", required = true)
+                                                                        @RequestBody @Valid BatchEditTaskStatusDto batchEditTaskStatusDto,
+                                                                        Authentication authentication) {
+        String authorEmail = authentication.getName();
+
+        Set<Long> updated = taskService.editStatusOfAll(batchEditTaskStatusDto.ids(),
+                batchEditTaskStatusDto.status(), authorEmail);
 
-        return ResponseEntity.ok(new Response<>(taskOutputDto, "Task assigned user updated successfully", true));
+        return ResponseEntity.ok(new Response<>(toBatchEditResult(batchEditTaskStatusDto.ids(), updated),
+                "Task statuses updated successfully", true));
+    }
+
+    @PutMapping("/batch/edit/priority")
+    @Operation(summary = "Edit priority of multiple tasks")
+    public ResponseEntity<Response<BatchEditResultDto>> editPriorityOfAll(@Parameter(description = "Task IDs and the new priority", required = true)
+                                                                          @RequestBody @Valid BatchEditTaskPriorityDto batchEditTaskPriorityDto,
+                                                                          Authentication authentication) {
+        String authorEmail = authentication.getName();
+
+        Set<Long> updated = taskService.editPriorityOfAll(batchEditTaskPriorityDto.ids(),
+                batchEditTaskPriorityDto.priority(), authorEmail);
+
+        return ResponseEntity.ok(new Response<>(toBatchEditResult(batchEditTaskPriorityDto.ids(), updated),
+                "Task priorities updated successfully", true));
+    }
+
+    @PutMapping("/batch/edit/assigned")
+    @Operation(summary = "Edit assigned user of multiple tasks")
+    public ResponseEntity<Response<BatchEditResultDto>> editAssignedUserOfAll(@Parameter(description = "Task IDs and the new assigned user", required = true)
+                                                                              @RequestBody @Valid BatchEditTaskAssignedUserDto batchEditTaskAssignedUserDto,
+                                                                              Authentication authentication) {
+        String authorEmail = authentication.getName();
+
+        Set<Long> updated = taskService.editAssignedUserOfAll(batchEditTaskAssignedUserDto.ids(),
+                batchEditTaskAssignedUserDto.assignedEmail(), authorEmail);
+
+        return ResponseEntity.ok(new Response<>(toBatchEditResult(batchEditTaskAssignedUserDto.ids(), updated),
+                "Task assigned users updated successfully", true));
     }
 
     @GetMapping("/get/{id}")
@@ -120,11 +285,18 @@ public class TaskController {
                             useReturnTypeSchema = true)
             })
     public ResponseEntity<Response<TaskOutputDto>> getTask(@Parameter(description = "ID of task", required = true)
-                                                           @PathVariable Long id) {
-        Task task = taskService.getTask(id);
-        TaskOutputDto taskOutputDto = taskMapper.map(task);
+                                                           @PathVariable Long id,
+                                                           WebRequest request) {
+        TaskOutputDto taskOutputDto = taskService.getTask(id);
+
+        String eTag = EntityTags.of(taskOutputDto.version(), taskOutputDto.commentCount());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
 
-        return ResponseEntity.ok(new Response<>(taskOutputDto, "Task retrieved successfully", true));
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(new Response<>(taskOutputDto, "Task retrieved successfully", true));
     }
 
     @GetMapping("/get")
@@ -138,16 +310,225 @@ public class TaskController {
                                                                             @RequestParam @Parameter(description = "End of the page", required = true)
                                                                             int end,
                                                                             @RequestParam @Parameter(description = "E-Mail of the user", required = true)
-                                                                            String email) {
+                                                                            String email,
+                                                                            WebRequest request) {
         if ((end - start) < 1) {
             throw new PaginationOutOfRangeException("Out of range!");
         }
 
         Pageable pageable = PageRequest.of(start, end - start);
-        Page<Task> multipleTasksForUser = taskService.getMultipleTasksForUser(email, pageable);
+        Page<TaskOutputDto> taskOutputDtos = taskService.getMultipleTasksForUser(email, pageable);
+
+        String eTag = EntityTags.of(taskOutputDtos.getContent(),
+                TaskOutputDto::id, TaskOutputDto::version, TaskOutputDto::commentCount,
+                taskOutputDtos.getNumber(), taskOutputDtos.getSize(), taskOutputDtos.getTotalElements());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(new Response<>(taskOutputDtos, "Tasks retrieved successfully", true));
+    }
+
+    @GetMapping("/scroll")
+    @Operation(summary = "Scroll through tasks by user using a cursor",
+            responses = {
+                    @ApiResponse(description = "Slice of tasks by user and the cursor of the next slice",
+                            useReturnTypeSchema = true)
+            })
+    public ResponseEntity<Response<CursorSlice<TaskOutputDto>>> scrollTasksForUser(@RequestParam @Parameter(description = "E-Mail of the user", required = true)
+                                                                                   String email,
+                                                                                   @RequestParam(required = false) @Parameter(description = "Cursor returned with the previous slice")
+                                                                                   String after,
+                                                                                   @RequestParam(defaultValue = "20") @Parameter(description = "Size of the slice")
+                                                                                   int size,
+                                                                                   @RequestParam(defaultValue = "ID") @Parameter(description = "Order of the tasks")
+                                                                                   TaskScrollOrder order,
+                                                                                   WebRequest request) {
+        if (size < 1 || size > MAX_SCROLL_SIZE) {
+            throw new PaginationOutOfRangeException("Out of range!");
+        }
 
-        Page<TaskOutputDto> taskOutputDtos = multipleTasksForUser.map(taskMapper::map);
+        Slice<TaskOutputDto> tasks = taskService.scrollTasksForUser(email, Cursor.decode(after), order, size);
+
+        return respond(tasks, order, request);
+    }
+
+    @GetMapping("/inbox")
+    @Operation(summary = "Scroll through tasks assigned to the current user, ordered by priority",
+            responses = {
+                    @ApiResponse(description = "Slice of assigned tasks and the cursor of the next slice",
+                            useReturnTypeSchema = true)
+            })
+    public ResponseEntity<Response<CursorSlice<TaskOutputDto>>> scrollInbox(@RequestParam(required = false) @Parameter(description = "Statuses of the tasks, all if absent")
+                                                                            Set<TaskStatus> status,
+                                                                            @RequestParam(required = false) @Parameter(description = "Cursor returned with the previous slice")
+                                                                            String after,
+                                                                            @RequestParam(defaultValue = "20") @Parameter(description = "Size of the slice")
+                                                                            int size,
+                                                                            Authentication authentication,
+                                                                            WebRequest request) {
+        if (size < 1 || size > MAX_SCROLL_SIZE) {
+            throw new PaginationOutOfRangeException("Out of range!");
+        }
+
+        String assignedEmail = authentication.getName();
+        Set<TaskStatus> statuses = status == null ? Set.of() : status;
+        Slice<TaskOutputDto> tasks = taskService.scrollInbox(assignedEmail, statuses, Cursor.decode(after), size);
+
+        return respond(tasks, TaskScrollOrder.PRIORITY, request);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search tasks of an author or an assigned user by status, priority and name prefix",
+            responses = {
+                    @ApiResponse(description = "Slice of matching tasks and the cursor of the next slice",
+                            useReturnTypeSchema = true)
+            })
+    public ResponseEntity<Response<CursorSlice<TaskOutputDto>>> searchTasks(@Valid @ParameterObject
+                                                                            TaskSearchDto filter,
+                                                                            @RequestParam(required = false) @Parameter(description = "Cursor returned with the previous slice")
+                                                                            String after,
+                                                                            @RequestParam(defaultValue = "20") @Parameter(description = "Size of the slice")
+                                                                            int size,
+                                                                            @RequestParam(defaultValue = "ID") @Parameter(description = "Order of the tasks")
+                                                                            TaskSearchOrder order,
+                                                                            WebRequest request) {
+        if (size < 1 || size > MAX_SCROLL_SIZE) {
+            throw new PaginationOutOfRangeException("Out of range!");
+        }
+
+        Slice<TaskOutputDto> tasks = taskService.searchTasks(filter, Cursor.decode(after), order, size);
+
+        return respond(tasks, order.byPriority() ? TaskScrollOrder.PRIORITY : TaskScrollOrder.ID, request);
+    }
+
+    @GetMapping("/search/text")
+    @Operation(summary = "Search tasks by words of their name, description and comments",
+            responses = {
+                    @ApiResponse(description = "Page of tasks, best matches first, with highlighted matches",
+                            useReturnTypeSchema = true)
+            })
+    public ResponseEntity<Response<Slice<TaskSearchHitDto>>> searchText(@RequestParam @Parameter(description = "Words to search for", required = true)
+                                                                        String query,
+                                                                        @RequestParam(defaultValue = "0") @Parameter(description = "Number of the page")
+                                                                        int page,
+                                                                        @RequestParam(defaultValue = "20") @Parameter(description = "Size of the page")
+                                                                        int size) {
+        if (query.isBlank() || query.length() > MAX_TEXT_QUERY_LENGTH) {
+            throw new InvalidSearchException("Query must contain from 1 to " + MAX_TEXT_QUERY_LENGTH + " symbols!");
+        }
+        if (page < 0 || size < 1 || size > MAX_SCROLL_SIZE || ((long) page + 1) * size > MAX_TEXT_SEARCH_RESULTS) {
+            throw new PaginationOutOfRangeException("Out of range!");
+        }
+
+        Slice<TaskSearchHitDto> hits = taskService.searchText(query, PageRequest.of(page, size));
+
+        return ResponseEntity.ok(new Response<>(hits, "Tasks found successfully", true));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Stream all tasks of the user, optionally with their comments, as NDJSON or CSV")
+    public ResponseEntity<StreamingResponseBody> exportTasks(@RequestParam @Parameter(description = "E-Mail of the user", required = true)
+                                                             String email,
+                                                             @RequestParam(defaultValue = "NDJSON") @Parameter(description = "Format of the export")
+                                                             ExportFormat format,
+                                                             @RequestParam(defaultValue = "false") @Parameter(description = "Include the comments of every task")
+                                                             boolean comments) {
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            TaskExportSink sink = format == ExportFormat.CSV
+                    ? new CsvTaskExportSink(writer)
+                    : new NdjsonTaskExportSink(objectMapper, writer);
+            taskExportService.exportTasks(email, comments, sink);
+            writer.flush();
+        };
+
+        MediaType mediaType = format == ExportFormat.CSV ? CSV : NDJSON;
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    @Operation(summary = "Import tasks and comments from NDJSON in the format of the export",
+            responses = {
+                    @ApiResponse(description = "Counts of imported rows and errors of the failed lines",
+                            useReturnTypeSchema = true)
+            })
+    public ResponseEntity<Response<ImportResultDto>> importTasks(InputStream body,
+                                                                 Authentication authentication) {
+        String authorEmail = authentication.getName();
+
+        ImportResultDto result = taskImportService.importTasks(body, authorEmail);
+
+        String message = (result.tasks() + result.comments()) + " of " + (result.tasks() + result.comments() + result.failed())
+                + " rows imported";
+        return ResponseEntity.ok(new Response<>(result, message, result.failed() == 0));
+    }
+
+    @GetMapping("/assignees/suggest")
+    @Operation(summary = "Suggest e-mails of assigned users by prefix, most used first",
+            responses = {
+                    @ApiResponse(description = "List of e-mails",
+                            useReturnTypeSchema = true)
+            })
+    public ResponseEntity<Response<List<String>>> suggestAssignees(@RequestParam @Parameter(description = "Start of the e-mail, at least two symbols", required = true)
+                                                                   String prefix,
+                                                                   @RequestParam(defaultValue = "10") @Parameter(description = "Maximum number of suggestions")
+                                                                   int limit) {
+        if (prefix.length() < MIN_SUGGESTION_PREFIX_LENGTH) {
+            throw new InvalidSearchException("Prefix must contain at least " + MIN_SUGGESTION_PREFIX_LENGTH
+                    + " symbols!");
+        }
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new PaginationOutOfRangeException("Out of range!");
+        }
+
+        List<String> suggestions = assigneeSuggestionService.suggest(prefix, limit);
+
+        return ResponseEntity.ok(new Response<>(suggestions, "Suggestions retrieved successfully", true));
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Count tasks of the current user by status and priority, as author and as assigned user",
+            responses = {
+                    @ApiResponse(description = "Numbers of tasks",
+                            useReturnTypeSchema = true)
+            })
+    public ResponseEntity<Response<TaskStatisticsDto>> getStatistics(Authentication authentication) {
+        TaskStatisticsDto statistics = taskStatisticsService.getStatistics(authentication.getName());
+
+        return ResponseEntity.ok(new Response<>(statistics, "Statistics retrieved successfully", true));
+    }
+
+    private static ResponseEntity<Response<CursorSlice<TaskOutputDto>>> respond(Slice<TaskOutputDto> tasks,
+                                                                                TaskScrollOrder order,
+                                                                                WebRequest request) {
+        String nextCursor = null;
+        if (tasks.hasNext()) {
+            TaskOutputDto last = tasks.getContent().getLast();
+            TaskPriority priority = order == TaskScrollOrder.PRIORITY ? last.priority() : null;
+            nextCursor = new Cursor(priority, last.id()).encode();
+        }
+        String eTag = EntityTags.of(tasks.getContent(),
+                TaskOutputDto::id, TaskOutputDto::version, TaskOutputDto::commentCount,
+                order.ordinal(), tasks.hasNext() ? 1 : 0);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+
+        CursorSlice<TaskOutputDto> slice = new CursorSlice<>(tasks.getContent(), nextCursor);
+
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(new Response<>(slice, "Tasks retrieved successfully", true));
+    }
 
-        return ResponseEntity.ok(new Response<>(taskOutputDtos, "Tasks retrieved successfully", true));
+    private static BatchEditResultDto toBatchEditResult(Set<Long> requested, Set<Long> updated) {
+        Set<Long> refused = new TreeSet<>(requested);
+        refused.removeAll(updated);
+        return new BatchEditResultDto(updated, refused);
     }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package ru.oldzoomer.tasks.dto.input;
+
+import ru.oldzoomer.tasks.constant.TaskPriority;
+import ru.oldzoomer.tasks.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position: the key of the last row of the previous slice.
+ * Encoded as URL-safe Base64 of {@code id} or {@code PRIORITY:id}.
+ */
+public record Cursor(TaskPriority priority, long id) {
+    public static final Cursor FIRST = new Cursor(null, 0L);
+
+    public static Cursor of(long id) {
+        return new Cursor(null, id);
+    }
+
+    public static Cursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return FIRST;
+        }
+
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = key.indexOf(':');
+            if (separator < 0) {
+                return new Cursor(null, Long.parseLong(key));
+            }
+            return new Cursor(TaskPriority.valueOf(key.substring(0, separator)),
+                    Long.parseLong(key.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor!");
+        }
+    }
+
+    public String encode() {
+        String key = priority == null ? String.valueOf(id) : priority.name() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+}
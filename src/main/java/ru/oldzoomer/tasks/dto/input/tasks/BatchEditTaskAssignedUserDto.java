@@ -0,0 +1,18 @@
+package ru.oldzoomer.tasks.dto.input.tasks;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.Set;
+
+public record BatchEditTaskAssignedUserDto(
+        @NotEmpty(message = "IDs should not be empty")
+        @Size(max = 500, message = "No more than 500 tasks can be edited at once") Set<@NotNull Long> ids,
+        @Email
+        @NotBlank
+        @Size(max = 50) String assignedEmail
+) {
+}
@@ -0,0 +1,15 @@
+package ru.oldzoomer.tasks.dto.input.tasks;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import ru.oldzoomer.tasks.constant.TaskStatus;
+
+import java.util.Set;
+
+public record BatchEditTaskStatusDto(
+        @NotEmpty(message = "IDs should not be empty")
+        @Size(max = 500, message = "No more than 500 tasks can be edited at once") Set<@NotNull Long> ids,
+        @NotNull TaskStatus status
+) {
+}
@@ -0,0 +1,23 @@
+package ru.oldzoomer.tasks.dto.input.tasks;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Size;
+import ru.oldzoomer.tasks.constant.TaskPriority;
+import ru.oldzoomer.tasks.constant.TaskStatus;
+
+import java.util.Set;
+
+/**
+ * Filter of the task search. Absent fields don't restrict the result,
+ * but at least one of the e-mails must be given.
+ */
+public record TaskSearchDto(
+        @Email(message = "Invalid email")
+        @Size(max = 50, message = "Email must be less than 50 characters") String authorEmail,
+        @Email(message = "Invalid email")
+        @Size(max = 50, message = "Email must be less than 50 characters") String assignedEmail,
+        Set<TaskStatus> statuses,
+        Set<TaskPriority> priorities,
+        @Size(max = 100, message = "Name prefix should be less than 100 symbols") String namePrefix
+) {
+}
@@ -0,0 +1,8 @@
+package ru.oldzoomer.tasks.dto.output;
+
+import ru.oldzoomer.tasks.constant.ChangeType;
+import ru.oldzoomer.tasks.dto.output.comments.CommentOutputDto;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskOutputDto;
+
+public record ChangeEventDto(ChangeType type, Long taskId, TaskOutputDto task, CommentOutputDto comment) {
+}
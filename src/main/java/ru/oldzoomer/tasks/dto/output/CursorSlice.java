@@ -0,0 +1,9 @@
+package ru.oldzoomer.tasks.dto.output;
+
+import java.util.List;
+
+public record CursorSlice<T>(
+        List<T> content,
+        String nextCursor
+) {
+}
@@ -0,0 +1,4 @@
+package ru.oldzoomer.tasks.dto.output.comments;
+
+public record CommentExportDto(Long taskId, Long id, String text, String authorEmail, Long version) {
+}
@@ -3,6 +3,7 @@ package ru.oldzoomer.tasks.dto.output.comments;
 public record CommentOutputDto(
         Long id,
         String text,
-        String authorEmail
+        String authorEmail,
+        Long version
 ) {
 }
@@ -0,0 +1,9 @@
+package ru.oldzoomer.tasks.dto.output.tasks;
+
+import java.util.Set;
+
+public record BatchEditResultDto(
+        Set<Long> updated,
+        Set<Long> refused
+) {
+}
@@ -0,0 +1,11 @@
+package ru.oldzoomer.tasks.dto.output.tasks;
+
+import java.util.List;
+
+public record BatchTaskResultDto(
+        int index,
+        boolean success,
+        TaskOutputDto task,
+        List<String> errors
+) {
+}
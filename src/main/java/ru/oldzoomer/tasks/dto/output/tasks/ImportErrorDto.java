@@ -0,0 +1,6 @@
+package ru.oldzoomer.tasks.dto.output.tasks;
+
+import java.util.List;
+
+public record ImportErrorDto(long line, List<String> errors) {
+}
@@ -0,0 +1,10 @@
+package ru.oldzoomer.tasks.dto.output.tasks;
+
+import java.util.List;
+
+/**
+ * Outcome of an import. {@code errors} holds at most the first 1000 failed lines,
+ * {@code failed} counts all of them.
+ */
+public record ImportResultDto(long lines, long tasks, long comments, long failed, List<ImportErrorDto> errors) {
+}
@@ -10,6 +10,8 @@ public record TaskOutputDto(
         TaskStatus status,
         TaskPriority priority,
         String authorEmail,
-        String assignedEmail
+        String assignedEmail,
+        Long version,
+        Long commentCount
 ) {
 }
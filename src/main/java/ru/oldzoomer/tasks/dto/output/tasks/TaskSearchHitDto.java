@@ -0,0 +1,8 @@
+package ru.oldzoomer.tasks.dto.output.tasks;
+
+/**
+ * Task found by the text search. Highlights are HTML: the task text escaped, the matched words marked
+ * with {@code <b>} and {@code </b>}.
+ */
+public record TaskSearchHitDto(TaskOutputDto task, double rank, String nameHighlight, String descriptionHighlight) {
+}
@@ -0,0 +1,12 @@
+package ru.oldzoomer.tasks.dto.output.tasks;
+
+import ru.oldzoomer.tasks.constant.TaskPriority;
+import ru.oldzoomer.tasks.constant.TaskStatus;
+
+import java.util.Map;
+
+public record TaskStatisticsDto(
+        Map<TaskStatus, Map<TaskPriority, Long>> authored,
+        Map<TaskStatus, Map<TaskPriority, Long>> assigned
+) {
+}
@@ -7,6 +7,7 @@ import lombok.Setter;
 import ru.oldzoomer.tasks.constant.TaskPriority;
 import ru.oldzoomer.tasks.constant.TaskStatus;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -17,7 +18,8 @@ import java.util.Objects;
 @Setter
 public class Task {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -39,10 +41,40 @@ public class Task {
     @Column(name = "assigned_email")
     private String assignedEmail;
 
+    /**
+     * Number of comments, maintained by the comment service so that lists need not count them.
+     */
+    @Column(name = "comment_count", nullable = false)
+    private Long commentCount = 0L;
+
+    /**
+     * When the task last became {@link TaskStatus#FINISHED}; {@code null} while it is not finished.
+     * The archiver moves tasks finished long enough ago out of the table.
+     */
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    /**
+     * Soft-delete flag; such tasks are invisible to the application until purged.
+     */
+    @Column(name = "deleted", nullable = false)
+    private Boolean deleted = false;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "task", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @JsonBackReference
     private List<Comments> comments = new ArrayList<>();
 
+    @PrePersist
+    void stampFinishedAt() {
+        if (status == TaskStatus.FINISHED && finishedAt == null) {
+            finishedAt = Instant.now();
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
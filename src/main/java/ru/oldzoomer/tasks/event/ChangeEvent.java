@@ -0,0 +1,47 @@
+package ru.oldzoomer.tasks.event;
+
+import ru.oldzoomer.tasks.constant.ChangeType;
+import ru.oldzoomer.tasks.dto.output.comments.CommentOutputDto;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskOutputDto;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Change of a task or of one of its comments, published by the services inside the changing
+ * transaction. {@code recipients} are the author and the assigned user of the task after the change;
+ * of an update that reassigns the task, the previously assigned user as well.
+ */
+public record ChangeEvent(ChangeType type, Long taskId, TaskOutputDto task, CommentOutputDto comment,
+                          Set<String> recipients) {
+
+    public static ChangeEvent ofTask(ChangeType type, TaskOutputDto task) {
+        return new ChangeEvent(type, task.id(), task, null, recipients(task.authorEmail(), task.assignedEmail()));
+    }
+
+    /**
+     * @param before state of the task before the update, whose assigned user is notified as well, or {@code null}
+     */
+    public static ChangeEvent ofTaskUpdated(TaskOutputDto before, TaskOutputDto task) {
+        String previousAssignedEmail = before != null ? before.assignedEmail() : null;
+        return new ChangeEvent(ChangeType.TASK_UPDATED, task.id(), task, null,
+                recipients(task.authorEmail(), task.assignedEmail(), previousAssignedEmail));
+    }
+
+    public static ChangeEvent ofTaskDeleted(Long taskId, String authorEmail, String assignedEmail) {
+        return new ChangeEvent(ChangeType.TASK_DELETED, taskId, null, null, recipients(authorEmail, assignedEmail));
+    }
+
+    public static ChangeEvent ofComment(ChangeType type, Long taskId, CommentOutputDto comment,
+                                        String authorEmail, String assignedEmail) {
+        return new ChangeEvent(type, taskId, null, comment, recipients(authorEmail, assignedEmail));
+    }
+
+    private static Set<String> recipients(String... emails) {
+        return Arrays.stream(emails)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
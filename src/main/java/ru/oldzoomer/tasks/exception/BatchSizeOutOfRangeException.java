@@ -0,0 +1,7 @@
+package ru.oldzoomer.tasks.exception;
+
+public class BatchSizeOutOfRangeException extends RuntimeException {
+    public BatchSizeOutOfRangeException(String message) {
+        super(message);
+    }
+}
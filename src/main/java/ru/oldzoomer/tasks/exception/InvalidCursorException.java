@@ -0,0 +1,7 @@
+package ru.oldzoomer.tasks.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
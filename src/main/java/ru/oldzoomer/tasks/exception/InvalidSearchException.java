@@ -0,0 +1,7 @@
+package ru.oldzoomer.tasks.exception;
+
+public class InvalidSearchException extends RuntimeException {
+    public InvalidSearchException(String message) {
+        super(message);
+    }
+}
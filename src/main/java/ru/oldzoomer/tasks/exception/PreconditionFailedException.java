@@ -0,0 +1,7 @@
+package ru.oldzoomer.tasks.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
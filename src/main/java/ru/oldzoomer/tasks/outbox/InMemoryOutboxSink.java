@@ -0,0 +1,20 @@
+package ru.oldzoomer.tasks.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps all sent messages, for tests and local runs.
+ */
+public class InMemoryOutboxSink implements OutboxSink {
+    private final List<OutboxMessage> messages = new ArrayList<>();
+
+    @Override
+    public synchronized void send(List<OutboxMessage> batch) {
+        messages.addAll(batch);
+    }
+
+    public synchronized List<OutboxMessage> getMessages() {
+        return List.copyOf(messages);
+    }
+}
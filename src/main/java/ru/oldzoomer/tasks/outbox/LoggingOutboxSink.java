@@ -0,0 +1,17 @@
+package ru.oldzoomer.tasks.outbox;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.util.List;
+
+/**
+ * Writes every message to the {@code ru.oldzoomer.tasks.outbox} log, which may be routed to its own file.
+ */
+@Log4j2
+public class LoggingOutboxSink implements OutboxSink {
+    @Override
+    public void send(List<OutboxMessage> messages) {
+        messages.forEach(message -> log.info("{} {} {} {}", message.id(), message.type(), message.taskId(),
+                message.payload()));
+    }
+}
@@ -0,0 +1,34 @@
+package ru.oldzoomer.tasks.outbox;
+
+import lombok.AllArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.oldzoomer.tasks.dto.output.ChangeEventDto;
+import ru.oldzoomer.tasks.entity.OutboxEntry;
+import ru.oldzoomer.tasks.event.ChangeEvent;
+import ru.oldzoomer.tasks.repo.OutboxRepository;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Instant;
+
+/**
+ * Records every change event in the outbox. Events are handled synchronously by the publishing
+ * service, so the entry is written in the transaction of the change and shares its fate.
+ */
+@Component
+@AllArgsConstructor
+public class OutboxAppender {
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @EventListener
+    public void onChange(ChangeEvent event) {
+        OutboxEntry entry = new OutboxEntry();
+        entry.setType(event.type());
+        entry.setTaskId(event.taskId());
+        entry.setPayload(objectMapper.writeValueAsString(
+                new ChangeEventDto(event.type(), event.taskId(), event.task(), event.comment())));
+        entry.setCreatedAt(Instant.now());
+        outboxRepository.save(entry);
+    }
+}
@@ -0,0 +1,176 @@
+package ru.oldzoomer.tasks.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.oldzoomer.tasks.entity.OutboxEntry;
+import ru.oldzoomer.tasks.repo.OutboxRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drains the outbox into the sink in batches, oldest first.
+ * <p>
+ * Every batch is locked with {@code FOR UPDATE SKIP LOCKED}, sent and deleted in one transaction,
+ * so concurrent dispatchers of several instances take disjoint batches. When the sink refuses a
+ * batch, its messages are sent one by one, so that a single message the sink cannot take does not
+ * hold back the others: a refused message is retried after {@code retry-backoff}, doubled on every
+ * further failure up to {@code max-retry-backoff}, and moved to {@code outbox_dead_letter} after
+ * {@code max-attempts} failures. A message waiting for its retry is overtaken by later ones.
+ * <p>
+ * Publishes {@code outbox.dispatched} (throughput), {@code outbox.dispatch.lag} (time from the change
+ * to its dispatch), {@code outbox.dispatch.failures} and {@code outbox.dead.lettered}.
+ */
+@Component
+@Log4j2
+public class OutboxDispatcher {
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxSink outboxSink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final Counter dispatched;
+    private final Counter failures;
+    private final Counter deadLettered;
+    private final Timer lag;
+
+    public OutboxDispatcher(OutboxRepository outboxRepository,
+                            OutboxSink outboxSink,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${tasks.outbox.batch-size:100}") int batchSize,
+                            @Value("${tasks.outbox.max-attempts:10}") int maxAttempts,
+                            @Value("${tasks.outbox.retry-backoff:1s}") Duration retryBackoff,
+                            @Value("${tasks.outbox.max-retry-backoff:5m}") Duration maxRetryBackoff) {
+        this.outboxRepository = outboxRepository;
+        this.outboxSink = outboxSink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+        this.dispatched = meterRegistry.counter("outbox.dispatched");
+        this.failures = meterRegistry.counter("outbox.dispatch.failures");
+        this.deadLettered = meterRegistry.counter("outbox.dead.lettered");
+        this.lag = meterRegistry.timer("outbox.dispatch.lag");
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.outbox.poll-interval:1s}")
+    public void dispatch() {
+        int taken;
+        do {
+            taken = dispatchBatch();
+        } while (taken == batchSize);
+    }
+
+    /**
+     * @return number of messages taken from the outbox, sent or not
+     */
+    private int dispatchBatch() {
+        List<OutboxMessage> messages;
+        try {
+            messages = transactionTemplate.execute(status -> {
+                List<OutboxMessage> batch = outboxRepository.lockNextBatch(Instant.now(), batchSize).stream()
+                        .map(OutboxDispatcher::toMessage)
+                        .toList();
+                if (!batch.isEmpty()) {
+                    outboxSink.send(batch);
+                    outboxRepository.deleteAllByIdInBatch(batch.stream().map(OutboxMessage::id).toList());
+                }
+                return batch;
+            });
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.error("Outbox dispatch failed: {}", e.getMessage());
+            return dispatchOneByOne();
+        }
+
+        recordSent(messages);
+        return messages.size();
+    }
+
+    /*
+     * Ends the round when no message gets through, as the sink is then more likely down than
+     * refusing single messages.
+     */
+    private int dispatchOneByOne() {
+        List<OutboxMessage> sent = new ArrayList<>();
+        Integer taken;
+        try {
+            taken = transactionTemplate.execute(status -> {
+                List<OutboxEntry> batch = outboxRepository.lockNextBatch(Instant.now(), batchSize);
+                for (OutboxEntry entry : batch) {
+                    OutboxMessage message = toMessage(entry);
+                    try {
+                        outboxSink.send(List.of(message));
+                    } catch (RuntimeException e) {
+                        refused(entry, e);
+                        continue;
+                    }
+                    outboxRepository.delete(entry);
+                    sent.add(message);
+                }
+                return batch.size();
+            });
+        } catch (RuntimeException e) {
+            log.error("Outbox dispatch of single messages failed: {}", e.getMessage());
+            return 0;
+        }
+
+        recordSent(sent);
+        return sent.isEmpty() ? 0 : taken;
+    }
+
+    private void refused(OutboxEntry entry, RuntimeException e) {
+        int attempts = entry.getAttempts() + 1;
+        Instant now = Instant.now();
+        if (attempts >= maxAttempts) {
+            outboxRepository.copyToDeadLetter(entry.getId(), attempts, truncate(e.getMessage()), now);
+            outboxRepository.delete(entry);
+            deadLettered.increment();
+            log.error("Outbox message {} moved to the dead letters after {} attempts: {}",
+                    entry.getId(), attempts, e.getMessage());
+            return;
+        }
+
+        entry.setAttempts(attempts);
+        entry.setNextAttemptAt(now.plus(backoff(attempts)));
+        log.warn("Outbox message {} refused, attempt {} of {}: {}", entry.getId(), attempts, maxAttempts,
+                e.getMessage());
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : backoff;
+    }
+
+    private void recordSent(List<OutboxMessage> messages) {
+        Instant now = Instant.now();
+        for (OutboxMessage message : messages) {
+            lag.record(Duration.between(message.createdAt(), now));
+        }
+        dispatched.increment(messages.size());
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    private static OutboxMessage toMessage(OutboxEntry entry) {
+        return new OutboxMessage(entry.getId(), entry.getType(), entry.getTaskId(), entry.getPayload(),
+                entry.getCreatedAt());
+    }
+}
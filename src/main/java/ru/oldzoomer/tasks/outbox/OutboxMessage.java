@@ -0,0 +1,11 @@
+package ru.oldzoomer.tasks.outbox;
+
+import ru.oldzoomer.tasks.constant.ChangeType;
+
+import java.time.Instant;
+
+/**
+ * Change record handed to an {@link OutboxSink}; {@code payload} is the JSON of the change event.
+ */
+public record OutboxMessage(long id, ChangeType type, long taskId, String payload, Instant createdAt) {
+}
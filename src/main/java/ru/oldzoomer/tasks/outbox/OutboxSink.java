@@ -0,0 +1,11 @@
+package ru.oldzoomer.tasks.outbox;
+
+import java.util.List;
+
+/**
+ * Destination of the outbox. A batch is removed from the outbox only when {@link #send} returns,
+ * so a sink sees every message at least once and has to tolerate repeats after a failure.
+ */
+public interface OutboxSink {
+    void send(List<OutboxMessage> messages);
+}
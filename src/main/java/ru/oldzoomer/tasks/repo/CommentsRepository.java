@@ -1,13 +1,78 @@
 package ru.oldzoomer.tasks.repo;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.oldzoomer.tasks.dto.output.comments.CommentExportDto;
+import ru.oldzoomer.tasks.dto.output.comments.CommentOutputDto;
 import ru.oldzoomer.tasks.entity.Comments;
-import ru.oldzoomer.tasks.entity.Task;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface CommentsRepository extends JpaRepository<Comments, Long> {
-    Page<Comments> findAllByAuthorEmail(String authorEmail, Pageable pageable);
+    /**
+     * Constructor expression for read-only queries, so that list and get paths
+     * neither hydrate {@link Comments} entities nor load their task.
+     */
+    String COMMENT_OUTPUT = "new ru.oldzoomer.tasks.dto.output.comments.CommentOutputDto(c.id, c.text, c.authorEmail, c.version)";
+
+    /**
+     * Comments of soft-deleted tasks are hidden until the purge removes them; the task is joined
+     * by primary key for that check only.
+     */
+    String OF_ACTIVE_TASK = " from Comments c join c.task t where t.deleted = false";
+
+    @Query("select c" + OF_ACTIVE_TASK + " and c.id = :id")
+    Optional<Comments> findActiveById(@Param("id") Long id);
+
+    @Query("select " + COMMENT_OUTPUT + OF_ACTIVE_TASK + " and c.id = :id")
+    Optional<CommentOutputDto> findOutputById(@Param("id") Long id);
+
+    @Query(value = "select " + COMMENT_OUTPUT + OF_ACTIVE_TASK + " and c.authorEmail = :authorEmail",
+            countQuery = "select count(c)" + OF_ACTIVE_TASK + " and c.authorEmail = :authorEmail")
+    Page<CommentOutputDto> findOutputByAuthorEmail(@Param("authorEmail") String authorEmail, Pageable pageable);
+
+    @Query(value = "select " + COMMENT_OUTPUT + OF_ACTIVE_TASK + " and t.id = :taskId",
+            countQuery = "select count(c)" + OF_ACTIVE_TASK + " and t.id = :taskId")
+    Page<CommentOutputDto> findOutputByTaskId(@Param("taskId") Long taskId, Pageable pageable);
+
+    @Query("select " + COMMENT_OUTPUT + OF_ACTIVE_TASK + """
+             and c.authorEmail = :authorEmail and c.id > :id
+            order by c.id""")
+    Slice<CommentOutputDto> findOutputByAuthorEmailAfterId(@Param("authorEmail") String authorEmail,
+                                                           @Param("id") Long id,
+                                                           Pageable pageable);
+
+    @Query("select " + COMMENT_OUTPUT + OF_ACTIVE_TASK + """
+             and t.id = :taskId and c.id > :id
+            order by c.id""")
+    Slice<CommentOutputDto> findOutputByTaskIdAfterId(@Param("taskId") Long taskId,
+                                                      @Param("id") Long id,
+                                                      Pageable pageable);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("""
+            select new ru.oldzoomer.tasks.dto.output.comments.CommentExportDto(t.id, c.id, c.text, c.authorEmail, c.version)
+              from Comments c join c.task t
+             where t.authorEmail = :authorEmail and t.deleted = false
+             order by t.id, c.id""")
+    Stream<CommentExportDto> streamExportByTaskAuthorEmail(@Param("authorEmail") String authorEmail);
 
-    Page<Comments> findAllByTask(Task task, Pageable pageable);
-}
\ No newline at end of file
+    /**
+     * Removes at most {@code limit} comments of the given tasks in one statement.
+     */
+    @Modifying
+    @Query(value = "delete from comments where id in (select id from comments where task_id in :taskIds limit :limit)",
+            nativeQuery = true)
+    int purgeByTaskIds(@Param("taskIds") Collection<Long> taskIds, @Param("limit") int limit);
+}
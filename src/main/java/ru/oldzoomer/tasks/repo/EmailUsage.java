@@ -0,0 +1,7 @@
+package ru.oldzoomer.tasks.repo;
+
+/**
+ * Number of tasks an e-mail appears on, as author or as assigned user.
+ */
+public record EmailUsage(String email, long count) {
+}
@@ -0,0 +1,81 @@
+package ru.oldzoomer.tasks.repo;
+
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskSearchHitDto;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Portable fallback for databases without full-text search, such as H2 of the tests.
+ * Every word must occur in the name, the description or a comment of the task;
+ * the rank is the share of the words found in the name. Scans the tasks table.
+ */
+@AllArgsConstructor
+public class LikeTaskTextSearch implements TaskTextSearch {
+    private final JdbcClient jdbcClient;
+
+    @Override
+    public List<TaskSearchHitDto> search(String query, int offset, int limit) {
+        List<String> words = Arrays.stream(query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .distinct()
+                .toList();
+        if (words.isEmpty()) {
+            return List.of();
+        }
+
+        StringBuilder rank = new StringBuilder("(0");
+        StringBuilder where = new StringBuilder("t.deleted = false");
+        for (int i = 0; i < words.size(); i++) {
+            String word = ":word" + i;
+            rank.append(" + case when lower(t.name) like ").append(word).append(" escape '\\' then 1 else 0 end");
+            where.append(" and (lower(t.name) like ").append(word).append(" escape '\\'")
+                    .append(" or lower(t.description) like ").append(word).append(" escape '\\'")
+                    .append(" or exists (select 1 from comments c where c.task_id = t.id and lower(c.text) like ")
+                    .append(word).append(" escape '\\'))");
+        }
+        rank.append(") * 1.0 / ").append(words.size());
+
+        String sql = "select " + TASK_COLUMNS + ", " + rank + " as rank from tasks t where " + where
+                + " order by rank desc, t.id limit :limit offset :offset";
+        JdbcClient.StatementSpec statement = jdbcClient.sql(sql)
+                .param("limit", limit)
+                .param("offset", offset);
+        for (int i = 0; i < words.size(); i++) {
+            statement = statement.param("word" + i, "%" + escapeLike(words.get(i)) + "%");
+        }
+
+        Pattern highlight = Pattern.compile(words.stream().map(Pattern::quote)
+                .reduce((left, right) -> left + "|" + right)
+                .orElseThrow(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        return statement.query((resultSet, rowNum) -> new TaskSearchHitDto(TaskTextSearch.taskOf(resultSet),
+                        resultSet.getDouble("rank"),
+                        highlight(resultSet.getString("name"), highlight),
+                        highlight(resultSet.getString("description"), highlight)))
+                .list();
+    }
+
+    private static String escapeLike(String word) {
+        return word.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static String highlight(String text, Pattern words) {
+        if (text == null) {
+            return null;
+        }
+        StringBuilder highlight = new StringBuilder(text.length() + 16);
+        Matcher matcher = words.matcher(text);
+        int end = 0;
+        while (matcher.find()) {
+            highlight.append(TaskTextSearch.escapeHtml(text.substring(end, matcher.start())))
+                    .append("<b>").append(TaskTextSearch.escapeHtml(matcher.group())).append("</b>");
+            end = matcher.end();
+        }
+        return highlight.append(TaskTextSearch.escapeHtml(text.substring(end))).toString();
+    }
+}
@@ -0,0 +1,49 @@
+package ru.oldzoomer.tasks.repo;
+
+import lombok.AllArgsConstructor;
+import ru.oldzoomer.tasks.constant.TaskPriority;
+import ru.oldzoomer.tasks.constant.TaskStatus;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskOutputDto;
+import ru.oldzoomer.tasks.mapper.TaskMapper;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.IntSupplier;
+
+/**
+ * Portable fallback for databases without {@code UPDATE ... RETURNING}, such as H2 of the tests:
+ * locks the task to read the state it is moved from, applies the guarded update and reads the new
+ * state, three statements per edit.
+ */
+@AllArgsConstructor
+public class LockingTaskUpdates implements TaskUpdates {
+    private final TaskRepository taskRepository;
+    private final TaskMapper taskMapper;
+
+    @Override
+    public Optional<TaskChange> updateStatus(Long id, TaskStatus status, Instant finishedAt, Long version,
+                                             String email) {
+        return update(id, () -> taskRepository.updateStatus(id, status, finishedAt, version, email));
+    }
+
+    @Override
+    public Optional<TaskChange> updatePriority(Long id, TaskPriority priority, Long version, String email) {
+        return update(id, () -> taskRepository.updatePriority(id, priority, version, email));
+    }
+
+    @Override
+    public Optional<TaskChange> updateAssignedEmail(Long id, String assignedEmail, Long version, String email) {
+        return update(id, () -> taskRepository.updateAssignedEmail(id, assignedEmail, version, email));
+    }
+
+    private Optional<TaskChange> update(Long id, IntSupplier update) {
+        List<TaskOutputDto> before = taskRepository.findAllByIdForUpdate(List.of(id)).stream()
+                .map(taskMapper::map)
+                .toList();
+        if (before.isEmpty() || update.getAsInt() == 0) {
+            return Optional.empty();
+        }
+        return taskRepository.findOutputById(id).map(after -> new TaskChange(before.getFirst(), after));
+    }
+}
@@ -0,0 +1,32 @@
+package ru.oldzoomer.tasks.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.oldzoomer.tasks.entity.OutboxEntry;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface OutboxRepository extends JpaRepository<OutboxEntry, Long> {
+    /**
+     * Oldest entries due at {@code now} and not locked by another dispatcher; they stay locked until
+     * the transaction ends.
+     */
+    @Query(value = "select * from outbox where next_attempt_at is null or next_attempt_at <= :now "
+            + "order by id limit :limit for update skip locked", nativeQuery = true)
+    List<OutboxEntry> lockNextBatch(@Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * Copies the entry to {@code outbox_dead_letter}; the caller deletes it from the outbox.
+     */
+    @Modifying
+    @Query(value = "insert into outbox_dead_letter (id, type, task_id, payload, created_at, attempts, last_error, failed_at) "
+            + "select id, type, task_id, payload, created_at, :attempts, :lastError, :failedAt from outbox where id = :id",
+            nativeQuery = true)
+    int copyToDeadLetter(@Param("id") Long id,
+                         @Param("attempts") int attempts,
+                         @Param("lastError") String lastError,
+                         @Param("failedAt") Instant failedAt);
+}
@@ -0,0 +1,66 @@
+package ru.oldzoomer.tasks.repo;
+
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskSearchHitDto;
+
+import java.util.List;
+
+/**
+ * Matches the {@code search_vector} columns maintained by PostgreSQL itself and served by GIN indexes.
+ * Comment matches rank a task at half the weight of its own text. Headlines are built only for
+ * the returned page, after ranking, with control characters around the matches; the text is escaped
+ * before the markers become {@code <b>} tags.
+ */
+@AllArgsConstructor
+public class PostgresTaskTextSearch implements TaskTextSearch {
+    private static final String START_SELECTION = "\u0002";
+    private static final String STOP_SELECTION = "\u0003";
+    private static final String SEARCH = """
+            with q as (select websearch_to_tsquery('simple', :query) as query),
+                 hits as (select t.id, ts_rank(t.search_vector, q.query) as rank
+                          from tasks t, q
+                          where t.search_vector @@ q.query and t.deleted = false
+                          union all
+                          select c.task_id, ts_rank(c.search_vector, q.query) / 2
+                          from comments c
+                                   join tasks ct on ct.id = c.task_id, q
+                          where c.search_vector @@ q.query and ct.deleted = false),
+                 ranked as (select id, max(rank) as rank
+                            from hits
+                            group by id
+                            order by rank desc, id
+                            limit :limit offset :offset)
+            select %s, r.rank,
+                   ts_headline('simple', t.name, q.query,
+                               'HighlightAll=true, StartSel=' || chr(2) || ', StopSel=' || chr(3)) as name_highlight,
+                   ts_headline('simple', t.description, q.query,
+                               'MaxFragments=2, MinWords=5, MaxWords=20, StartSel=' || chr(2) || ', StopSel=' || chr(3))
+                       as description_highlight
+            from ranked r
+                     join tasks t on t.id = r.id
+                     cross join q
+            order by r.rank desc, t.id""".formatted(TASK_COLUMNS);
+
+    private final JdbcClient jdbcClient;
+
+    @Override
+    public List<TaskSearchHitDto> search(String query, int offset, int limit) {
+        return jdbcClient.sql(SEARCH)
+                .param("query", query)
+                .param("limit", limit)
+                .param("offset", offset)
+                .query((resultSet, rowNum) -> new TaskSearchHitDto(TaskTextSearch.taskOf(resultSet),
+                        resultSet.getDouble("rank"),
+                        highlight(resultSet.getString("name_highlight")),
+                        highlight(resultSet.getString("description_highlight"))))
+                .list();
+    }
+
+    private static String highlight(String headline) {
+        if (headline == null) {
+            return null;
+        }
+        return TaskTextSearch.escapeHtml(headline).replace(START_SELECTION, "<b>").replace(STOP_SELECTION, "</b>");
+    }
+}
@@ -0,0 +1,90 @@
+package ru.oldzoomer.tasks.repo;
+
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import ru.oldzoomer.tasks.constant.TaskPriority;
+import ru.oldzoomer.tasks.constant.TaskStatus;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskOutputDto;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+/**
+ * Edits of PostgreSQL in one statement: the subquery locks the row and keeps the values it had, which
+ * {@code RETURNING} hands back next to the updated ones, so no locking select precedes the update.
+ */
+@AllArgsConstructor
+public class ReturningTaskUpdates implements TaskUpdates {
+    private static final String UPDATE = """
+            update tasks t
+               set %s, version = t.version + 1
+              from (select id, status, priority, assigned_email, version from tasks where id = :id for update) p
+             where t.id = p.id
+               and t.deleted = false
+               and (cast(:version as bigint) is null or t.version = :version)
+               and %s
+            returning %s,
+                      p.status as previous_status, p.priority as previous_priority,
+                      p.assigned_email as previous_assigned_email, p.version as previous_version""";
+
+    private static final String EDITABLE_BY_AUTHOR = "t.author_email = :email";
+    private static final String EDITABLE_BY_AUTHOR_OR_ASSIGNED = "(t.author_email = :email or t.assigned_email = :email)";
+
+    private final JdbcClient jdbcClient;
+
+    @Override
+    public Optional<TaskChange> updateStatus(Long id, TaskStatus status, Instant finishedAt, Long version,
+                                             String email) {
+        return jdbcClient.sql(update("status = :status, finished_at = :finishedAt", EDITABLE_BY_AUTHOR_OR_ASSIGNED))
+                .param("id", id)
+                .param("status", status.ordinal())
+                .param("finishedAt", finishedAt != null ? finishedAt.atOffset(ZoneOffset.UTC) : null)
+                .param("version", version)
+                .param("email", email)
+                .query((resultSet, rowNum) -> changeOf(resultSet))
+                .optional();
+    }
+
+    @Override
+    public Optional<TaskChange> updatePriority(Long id, TaskPriority priority, Long version, String email) {
+        return jdbcClient.sql(update("priority = :priority", EDITABLE_BY_AUTHOR))
+                .param("id", id)
+                .param("priority", priority.ordinal())
+                .param("version", version)
+                .param("email", email)
+                .query((resultSet, rowNum) -> changeOf(resultSet))
+                .optional();
+    }
+
+    @Override
+    public Optional<TaskChange> updateAssignedEmail(Long id, String assignedEmail, Long version, String email) {
+        return jdbcClient.sql(update("assigned_email = :assignedEmail", EDITABLE_BY_AUTHOR))
+                .param("id", id)
+                .param("assignedEmail", assignedEmail)
+                .param("version", version)
+                .param("email", email)
+                .query((resultSet, rowNum) -> changeOf(resultSet))
+                .optional();
+    }
+
+    private static String update(String assignments, String editable) {
+        return UPDATE.formatted(assignments, editable, TaskTextSearch.TASK_COLUMNS);
+    }
+
+    private static TaskChange changeOf(ResultSet resultSet) throws SQLException {
+        TaskOutputDto after = TaskTextSearch.taskOf(resultSet);
+        TaskOutputDto before = new TaskOutputDto(after.id(),
+                after.name(),
+                after.description(),
+                TaskStatus.values()[resultSet.getInt("previous_status")],
+                TaskPriority.values()[resultSet.getInt("previous_priority")],
+                after.authorEmail(),
+                resultSet.getString("previous_assigned_email"),
+                resultSet.getLong("previous_version"),
+                after.commentCount());
+        return new TaskChange(before, after);
+    }
+}
@@ -0,0 +1,106 @@
+package ru.oldzoomer.tasks.repo;
+
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import ru.oldzoomer.tasks.constant.TaskStatus;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskOutputDto;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Moves finished tasks with their comments from the hot tables into {@code tasks_archive} and
+ * {@code comments_archive}, and reads them back by ID. On PostgreSQL the archive is partitioned by
+ * the month a task was finished, and the partitions of a month are created on first use.
+ */
+@AllArgsConstructor
+public class TaskArchiveRepository {
+    private static final String LOCK_ARCHIVABLE = """
+            select id, finished_at
+              from tasks
+             where status = :finished and finished_at < :cutoff and deleted = false
+             order by id
+             limit :limit
+               for update skip locked""";
+
+    private static final String ARCHIVE_COMMENTS = """
+            insert into comments_archive (id, task_id, author_email, text, version, finished_at)
+            select c.id, c.task_id, c.author_email, c.text, c.version, t.finished_at
+              from comments c
+                       join tasks t on t.id = c.task_id
+             where c.task_id in (:ids)""";
+
+    private static final String ARCHIVE_TASKS = """
+            insert into tasks_archive (id, name, description, status, priority, author_email, assigned_email,
+                                       version, comment_count, finished_at, archived_at)
+            select id, name, description, status, priority, author_email, assigned_email,
+                   version, comment_count, finished_at, :archivedAt
+              from tasks
+             where id in (:ids)""";
+
+    private static final String CREATE_PARTITION = """
+            create table if not exists %s_%d_%02d partition of %s
+                for values from ('%s') to ('%s')""";
+
+    private static final String FIND_OUTPUT_BY_ID = "select " + TaskTextSearch.TASK_COLUMNS
+            + " from tasks_archive t where t.id = :id";
+
+    private final JdbcClient jdbcClient;
+    private final boolean partitioned;
+
+    /**
+     * IDs and finish months of the oldest archivable tasks, locked against other archivers and edits.
+     */
+    public List<ArchivableTask> lockArchivable(Instant cutoff, int limit) {
+        return jdbcClient.sql(LOCK_ARCHIVABLE)
+                .param("finished", TaskStatus.FINISHED.ordinal())
+                .param("cutoff", cutoff.atOffset(ZoneOffset.UTC))
+                .param("limit", limit)
+                .query((resultSet, rowNum) -> new ArchivableTask(resultSet.getLong("id"),
+                        YearMonth.from(resultSet.getObject("finished_at", OffsetDateTime.class)
+                                .withOffsetSameInstant(ZoneOffset.UTC))))
+                .list();
+    }
+
+    public void createPartitions(Collection<YearMonth> months) {
+        if (!partitioned) {
+            return;
+        }
+        for (YearMonth month : months) {
+            String from = month.atDay(1) + " 00:00:00+00";
+            String to = month.plusMonths(1).atDay(1) + " 00:00:00+00";
+            for (String table : List.of("tasks_archive", "comments_archive")) {
+                jdbcClient.sql(CREATE_PARTITION.formatted(table, month.getYear(), month.getMonthValue(), table,
+                        from, to)).update();
+            }
+        }
+    }
+
+    /**
+     * Copies the tasks and their comments into the archive and deletes them from the hot tables.
+     */
+    public int move(Collection<Long> ids, Instant archivedAt) {
+        jdbcClient.sql(ARCHIVE_COMMENTS).param("ids", ids).update();
+        jdbcClient.sql(ARCHIVE_TASKS)
+                .param("ids", ids)
+                .param("archivedAt", archivedAt.atOffset(ZoneOffset.UTC))
+                .update();
+        jdbcClient.sql("delete from comments where task_id in (:ids)").param("ids", ids).update();
+        return jdbcClient.sql("delete from tasks where id in (:ids)").param("ids", ids).update();
+    }
+
+    public Optional<TaskOutputDto> findOutputById(Long id) {
+        return jdbcClient.sql(FIND_OUTPUT_BY_ID)
+                .param("id", id)
+                .query((resultSet, rowNum) -> TaskTextSearch.taskOf(resultSet))
+                .optional();
+    }
+
+    public record ArchivableTask(long id, YearMonth finishedMonth) {
+    }
+}
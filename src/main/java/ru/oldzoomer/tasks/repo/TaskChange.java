@@ -0,0 +1,9 @@
+package ru.oldzoomer.tasks.repo;
+
+import ru.oldzoomer.tasks.dto.output.tasks.TaskOutputDto;
+
+/**
+ * States of a task before and after an edit of {@link TaskUpdates}.
+ */
+public record TaskChange(TaskOutputDto before, TaskOutputDto after) {
+}
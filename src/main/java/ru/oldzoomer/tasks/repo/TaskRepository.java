@@ -1,12 +1,240 @@
 package ru.oldzoomer.tasks.repo;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.oldzoomer.tasks.constant.TaskPriority;
+import ru.oldzoomer.tasks.constant.TaskStatus;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskOutputDto;
 import ru.oldzoomer.tasks.entity.Task;
 
-public interface TaskRepository extends JpaRepository<Task, Long> {
-    @EntityGraph(attributePaths = "comments")
-    Page<Task> findAllByAuthorEmail(String authorEmail, Pageable pageable);
-}
\ No newline at end of file
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskSearchRepository {
+    /**
+     * Constructor expression for read-only queries, so that list and get paths
+     * neither hydrate {@link Task} entities nor touch their comments.
+     */
+    String TASK_OUTPUT = """
+            new ru.oldzoomer.tasks.dto.output.tasks.TaskOutputDto(
+                t.id, t.name, t.description, t.status, t.priority, t.authorEmail, t.assignedEmail, t.version,
+                t.commentCount)""";
+
+    /**
+     * Ownership rules of the edit paths: status may be changed by the author or the assigned user,
+     * everything else only by the author.
+     */
+    String EDITABLE_BY_AUTHOR = "t.authorEmail = :email";
+    String EDITABLE_BY_AUTHOR_OR_ASSIGNED = "(t.authorEmail = :email or t.assignedEmail = :email)";
+
+    /**
+     * Soft-deleted tasks stay in the table until {@code TaskPurgeService} removes them; every query
+     * other than the purge's own must leave them out.
+     */
+    String NOT_DELETED = "t.deleted = false";
+
+    /**
+     * Optimistic concurrency check of the single edits; a {@code null} version skips it.
+     */
+    String MATCHES_VERSION = "(:version is null or t.version = :version)";
+
+    /**
+     * Locks the tasks whose previous state a change has to know, such as the task statistics.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Task t where t.id in :ids and " + NOT_DELETED + " order by t.id")
+    List<Task> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query("select t from Task t where t.id = :id and " + NOT_DELETED)
+    Optional<Task> findActiveById(@Param("id") Long id);
+
+    @Query("select count(t) > 0 from Task t where t.id = :id and " + NOT_DELETED)
+    boolean existsActiveById(@Param("id") Long id);
+
+    @Query("select t.version from Task t where t.id = :id and " + NOT_DELETED)
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("select " + TASK_OUTPUT + " from Task t where t.id = :id and " + NOT_DELETED)
+    Optional<TaskOutputDto> findOutputById(@Param("id") Long id);
+
+    /**
+     * The task as it was served before {@link #markDeleted}; read in the deleting transaction, which
+     * holds the row lock of that update.
+     */
+    @Query("select " + TASK_OUTPUT + " from Task t where t.id = :id and t.deleted = true")
+    Optional<TaskOutputDto> findDeletedOutputById(@Param("id") Long id);
+
+    @Query("select " + TASK_OUTPUT + " from Task t where t.id in :ids and " + NOT_DELETED)
+    List<TaskOutputDto> findOutputByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "select " + TASK_OUTPUT + " from Task t where t.authorEmail = :authorEmail and " + NOT_DELETED,
+            countQuery = "select count(t) from Task t where t.authorEmail = :authorEmail and " + NOT_DELETED)
+    Page<TaskOutputDto> findOutputByAuthorEmail(@Param("authorEmail") String authorEmail, Pageable pageable);
+
+    @Query("select " + TASK_OUTPUT + """
+             from Task t
+            where t.authorEmail = :authorEmail and t.id > :id and t.deleted = false
+            order by t.id""")
+    Slice<TaskOutputDto> findOutputByAuthorEmailAfterId(@Param("authorEmail") String authorEmail,
+                                                        @Param("id") Long id,
+                                                        Pageable pageable);
+
+    @Query("select " + TASK_OUTPUT + """
+             from Task t
+            where t.authorEmail = :authorEmail and t.deleted = false
+              and ((t.priority = :priority and t.id > :id) or t.priority in :laterPriorities)
+            order by t.priority, t.id""")
+    Slice<TaskOutputDto> findOutputByAuthorEmailAfterPriorityKey(@Param("authorEmail") String authorEmail,
+                                                                 @Param("priority") TaskPriority priority,
+                                                                 @Param("id") Long id,
+                                                                 @Param("laterPriorities") Collection<TaskPriority> laterPriorities,
+                                                                 Pageable pageable);
+
+    @Query("select " + TASK_OUTPUT + """
+             from Task t
+            where t.assignedEmail = :assignedEmail and t.status in :statuses and t.deleted = false
+              and ((t.priority = :priority and t.id > :id) or t.priority in :laterPriorities)
+            order by t.priority, t.id""")
+    Slice<TaskOutputDto> findOutputByAssignedEmailAfterPriorityKey(@Param("assignedEmail") String assignedEmail,
+                                                                   @Param("statuses") Collection<TaskStatus> statuses,
+                                                                   @Param("priority") TaskPriority priority,
+                                                                   @Param("id") Long id,
+                                                                   @Param("laterPriorities") Collection<TaskPriority> laterPriorities,
+                                                                   Pageable pageable);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select " + TASK_OUTPUT + " from Task t where t.authorEmail = :authorEmail and " + NOT_DELETED
+            + " order by t.id")
+    Stream<TaskOutputDto> streamOutputByAuthorEmail(@Param("authorEmail") String authorEmail);
+
+    @Query("""
+            select new ru.oldzoomer.tasks.repo.EmailUsage(t.assignedEmail, count(t))
+              from Task t
+             where t.assignedEmail is not null and t.deleted = false
+             group by t.assignedEmail""")
+    List<EmailUsage> countAssignedEmailUsages();
+
+    @Query("""
+            select new ru.oldzoomer.tasks.repo.EmailUsage(t.authorEmail, count(t))
+              from Task t
+             where t.deleted = false
+             group by t.authorEmail""")
+    List<EmailUsage> countAuthorEmailUsages();
+
+    @Modifying
+    @Query("update Task t set t.status = :status, t.finishedAt = :finishedAt, t.version = t.version + 1"
+            + " where t.id = :id and " + NOT_DELETED + " and " + MATCHES_VERSION + " and " + EDITABLE_BY_AUTHOR_OR_ASSIGNED)
+    int updateStatus(@Param("id") Long id,
+                     @Param("status") TaskStatus status,
+                     @Param("finishedAt") Instant finishedAt,
+                     @Param("version") Long version,
+                     @Param("email") String email);
+
+    @Modifying
+    @Query("update Task t set t.priority = :priority, t.version = t.version + 1 where t.id = :id and "
+            + NOT_DELETED + " and " + MATCHES_VERSION + " and " + EDITABLE_BY_AUTHOR)
+    int updatePriority(@Param("id") Long id,
+                       @Param("priority") TaskPriority priority,
+                       @Param("version") Long version,
+                       @Param("email") String email);
+
+    @Modifying
+    @Query("update Task t set t.name = :name, t.description = :description, t.version = t.version + 1"
+            + " where t.id = :id and " + NOT_DELETED + " and " + MATCHES_VERSION + " and " + EDITABLE_BY_AUTHOR)
+    int updateNameAndDescription(@Param("id") Long id,
+                                 @Param("name") String name,
+                                 @Param("description") String description,
+                                 @Param("version") Long version,
+                                 @Param("email") String email);
+
+    @Modifying
+    @Query("update Task t set t.assignedEmail = :assignedEmail, t.version = t.version + 1 where t.id = :id and "
+            + NOT_DELETED + " and " + MATCHES_VERSION + " and " + EDITABLE_BY_AUTHOR)
+    int updateAssignedEmail(@Param("id") Long id,
+                            @Param("assignedEmail") String assignedEmail,
+                            @Param("version") Long version,
+                            @Param("email") String email);
+
+    /**
+     * Moves the comment count of the task without loading its comments. The version stays put:
+     * commenting is not an edit of the task and must not fail a concurrent {@code If-Match} of its
+     * author, so entity tags of tasks carry the count next to the version instead.
+     */
+    @Modifying
+    @Query("update Task t set t.commentCount = t.commentCount + :delta where t.id = :id and " + NOT_DELETED)
+    int addCommentCount(@Param("id") Long id, @Param("delta") long delta);
+
+    @Query("select t.id from Task t where t.id in :ids and " + NOT_DELETED)
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Locks the tasks of the set that the user may edit. The ownership is checked on the locked rows,
+     * so a task handed over meanwhile is left out, and the locked rows stay editable until commit.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Task t where t.id in :ids and " + NOT_DELETED + " and " + EDITABLE_BY_AUTHOR
+            + " order by t.id")
+    List<Task> findAllEditableByAuthorForUpdate(@Param("ids") Collection<Long> ids, @Param("email") String email);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Task t where t.id in :ids and " + NOT_DELETED + " and " + EDITABLE_BY_AUTHOR_OR_ASSIGNED
+            + " order by t.id")
+    List<Task> findAllEditableByAuthorOrAssignedForUpdate(@Param("ids") Collection<Long> ids,
+                                                          @Param("email") String email);
+
+    @Modifying
+    @Query("update Task t set t.status = :status, t.finishedAt = :finishedAt, t.version = t.version + 1"
+            + " where t.id in :ids and " + NOT_DELETED + " and " + EDITABLE_BY_AUTHOR_OR_ASSIGNED)
+    int updateStatusByIds(@Param("ids") Collection<Long> ids,
+                          @Param("status") TaskStatus status,
+                          @Param("finishedAt") Instant finishedAt,
+                          @Param("email") String email);
+
+    @Modifying
+    @Query("update Task t set t.priority = :priority, t.version = t.version + 1 where t.id in :ids and "
+            + NOT_DELETED + " and " + EDITABLE_BY_AUTHOR)
+    int updatePriorityByIds(@Param("ids") Collection<Long> ids,
+                            @Param("priority") TaskPriority priority,
+                            @Param("email") String email);
+
+    @Modifying
+    @Query("update Task t set t.assignedEmail = :assignedEmail, t.version = t.version + 1 where t.id in :ids and "
+            + NOT_DELETED + " and " + EDITABLE_BY_AUTHOR)
+    int updateAssignedEmailByIds(@Param("ids") Collection<Long> ids,
+                                 @Param("assignedEmail") String assignedEmail,
+                                 @Param("email") String email);
+
+    /**
+     * Soft delete: one statement, whatever the number of comments. Comments and the row itself are
+     * removed later by {@code TaskPurgeService}.
+     */
+    @Modifying
+    @Query("update Task t set t.deleted = true, t.version = t.version + 1 where t.id = :id and "
+            + NOT_DELETED + " and " + EDITABLE_BY_AUTHOR)
+    int markDeleted(@Param("id") Long id, @Param("email") String email);
+
+    /**
+     * Oldest soft-deleted tasks not locked by another purger.
+     */
+    @Query(value = "select id from tasks where deleted = true order by id limit :limit for update skip locked",
+            nativeQuery = true)
+    List<Long> lockDeletedIds(@Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "delete from tasks where id in :ids and deleted = true", nativeQuery = true)
+    int purgeByIds(@Param("ids") Collection<Long> ids);
+}
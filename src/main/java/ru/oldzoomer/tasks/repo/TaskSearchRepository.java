@@ -0,0 +1,11 @@
+package ru.oldzoomer.tasks.repo;
+
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskOutputDto;
+import ru.oldzoomer.tasks.entity.Task;
+
+public interface TaskSearchRepository {
+    Slice<TaskOutputDto> findOutputBy(Specification<Task> specification, Sort sort, int size);
+}
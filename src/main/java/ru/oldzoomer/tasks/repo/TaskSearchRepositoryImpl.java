@@ -0,0 +1,49 @@
+package ru.oldzoomer.tasks.repo;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskOutputDto;
+import ru.oldzoomer.tasks.entity.Task;
+
+import java.util.List;
+
+/**
+ * Runs a specification as one query projected straight into {@link TaskOutputDto},
+ * fetching one extra row to tell whether a next slice exists instead of counting.
+ * Soft-deleted tasks are left out whatever the specification.
+ */
+class TaskSearchRepositoryImpl implements TaskSearchRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<TaskOutputDto> findOutputBy(Specification<Task> specification, Sort sort, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskOutputDto> query = cb.createQuery(TaskOutputDto.class);
+        Root<Task> root = query.from(Task.class);
+
+        query.select(cb.construct(TaskOutputDto.class,
+                root.get("id"), root.get("name"), root.get("description"), root.get("status"),
+                root.get("priority"), root.get("authorEmail"), root.get("assignedEmail"), root.get("version"),
+                root.get("commentCount")));
+        query.where(cb.isFalse(root.get("deleted")), specification.toPredicate(root, query, cb));
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        List<TaskOutputDto> rows = entityManager.createQuery(query)
+                .setMaxResults(size + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > size;
+        List<TaskOutputDto> content = hasNext ? rows.subList(0, size) : rows;
+        return new SliceImpl<>(content, PageRequest.of(0, size, sort), hasNext);
+    }
+}
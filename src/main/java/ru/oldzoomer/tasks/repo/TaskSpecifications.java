@@ -0,0 +1,67 @@
+package ru.oldzoomer.tasks.repo;
+
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import ru.oldzoomer.tasks.constant.TaskPriority;
+import ru.oldzoomer.tasks.constant.TaskSearchOrder;
+import ru.oldzoomer.tasks.constant.TaskStatus;
+import ru.oldzoomer.tasks.dto.input.Cursor;
+import ru.oldzoomer.tasks.entity.Task;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Building blocks of the task search, combined with {@link Specification#and}.
+ */
+public final class TaskSpecifications {
+    private TaskSpecifications() {
+    }
+
+    public static Specification<Task> authorEmailIs(String authorEmail) {
+        return (root, query, cb) -> cb.equal(root.get("authorEmail"), authorEmail);
+    }
+
+    public static Specification<Task> assignedEmailIs(String assignedEmail) {
+        return (root, query, cb) -> cb.equal(root.get("assignedEmail"), assignedEmail);
+    }
+
+    public static Specification<Task> statusIn(Collection<TaskStatus> statuses) {
+        return (root, query, cb) -> root.get("status").in(statuses);
+    }
+
+    public static Specification<Task> priorityIn(Collection<TaskPriority> priorities) {
+        return (root, query, cb) -> root.get("priority").in(priorities);
+    }
+
+    public static Specification<Task> nameStartsWith(String prefix) {
+        String pattern = prefix.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(root.get("name"), pattern, '\\');
+    }
+
+    /**
+     * Keyset condition: rows strictly after the cursor in the given order.
+     */
+    public static Specification<Task> after(Cursor cursor, TaskSearchOrder order) {
+        return (root, query, cb) -> {
+            Path<Long> id = root.get("id");
+            Predicate afterId = order.descending() ? cb.lessThan(id, cursor.id()) : cb.greaterThan(id, cursor.id());
+            if (!order.byPriority()) {
+                return afterId;
+            }
+
+            Path<TaskPriority> priority = root.get("priority");
+            Predicate samePriority = cb.and(cb.equal(priority, cursor.priority()), afterId);
+            List<TaskPriority> laterPriorities = Arrays.stream(TaskPriority.values())
+                    .filter(p -> order.descending()
+                            ? p.ordinal() < cursor.priority().ordinal()
+                            : p.ordinal() > cursor.priority().ordinal())
+                    .toList();
+            return laterPriorities.isEmpty() ? samePriority : cb.or(samePriority, priority.in(laterPriorities));
+        };
+    }
+}
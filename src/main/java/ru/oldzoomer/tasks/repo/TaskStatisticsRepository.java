@@ -0,0 +1,132 @@
+package ru.oldzoomer.tasks.repo;
+
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+import ru.oldzoomer.tasks.constant.TaskPriority;
+import ru.oldzoomer.tasks.constant.TaskRole;
+import ru.oldzoomer.tasks.constant.TaskStatus;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Counters of the {@code task_stats} table. Every counter is split into stripes, rows of the same key
+ * updated by different transactions; its value is the sum of the stripes.
+ */
+@Repository
+@AllArgsConstructor
+public class TaskStatisticsRepository {
+    private static final String KEY = "email = :email and role = :role and status = :status and priority = :priority";
+
+    private static final String INCREMENT = "update task_stats set task_count = task_count + :delta where "
+            + KEY + " and stripe = :stripe";
+
+    private static final String INSERT = """
+            insert into task_stats (email, role, status, priority, stripe, task_count)
+            values (:email, :role, :status, :priority, :stripe, 0)
+            on conflict do nothing""";
+
+    private static final String SUM_BY_EMAIL = """
+            select email, role, status, priority, sum(task_count) as task_count
+              from task_stats
+             where email = :email
+             group by email, role, status, priority""";
+
+    private static final String SUM_ALL = """
+            select email, role, status, priority, sum(task_count) as task_count
+              from task_stats
+             group by email, role, status, priority""";
+
+    private static final String COUNT_TASKS = """
+            select author_email as email, :author as role, status, priority, count(*) as task_count
+              from tasks
+             where deleted = false
+             group by author_email, status, priority
+            union all
+            select assigned_email, :assignee, status, priority, count(*)
+              from tasks
+             where assigned_email is not null and deleted = false
+             group by assigned_email, status, priority
+            union all
+            select author_email, :author, status, priority, count(*)
+              from tasks_archive
+             group by author_email, status, priority
+            union all
+            select assigned_email, :assignee, status, priority, count(*)
+              from tasks_archive
+             where assigned_email is not null
+             group by assigned_email, status, priority""";
+
+    private static final String LOCK_RECONCILIATION = """
+            select name
+              from job_locks
+             where name = 'task-stats-reconcile'
+               for update skip locked""";
+
+    private final JdbcClient jdbcClient;
+
+    /**
+     * Adds {@code delta} to one stripe of the counter, creating the stripe on first use.
+     */
+    public void add(TaskStatsKey key, int stripe, long delta) {
+        if (increment(key, stripe, delta) == 0) {
+            bind(jdbcClient.sql(INSERT), key).param("stripe", stripe).update();
+            increment(key, stripe, delta);
+        }
+    }
+
+    public Map<TaskStatsKey, Long> sumByEmail(String email) {
+        return sum(jdbcClient.sql(SUM_BY_EMAIL).param("email", email));
+    }
+
+    public Map<TaskStatsKey, Long> sumAll() {
+        return sum(jdbcClient.sql(SUM_ALL));
+    }
+
+    /**
+     * Counts the tasks themselves, archived ones included, which is what the counters should add up to.
+     */
+    public Map<TaskStatsKey, Long> countTasks() {
+        return sum(jdbcClient.sql(COUNT_TASKS)
+                .param("author", TaskRole.AUTHOR.ordinal())
+                .param("assignee", TaskRole.ASSIGNEE.ordinal()));
+    }
+
+    /**
+     * Locks the reconciliation for the rest of the transaction; false when another instance holds it.
+     */
+    public boolean tryLockReconciliation() {
+        return jdbcClient.sql(LOCK_RECONCILIATION).query(String.class).optional().isPresent();
+    }
+
+    private int increment(TaskStatsKey key, int stripe, long delta) {
+        return bind(jdbcClient.sql(INCREMENT), key)
+                .param("stripe", stripe)
+                .param("delta", delta)
+                .update();
+    }
+
+    private static JdbcClient.StatementSpec bind(JdbcClient.StatementSpec statement, TaskStatsKey key) {
+        return statement.param("email", key.email())
+                .param("role", key.role().ordinal())
+                .param("status", key.status().ordinal())
+                .param("priority", key.priority().ordinal());
+    }
+
+    private static Map<TaskStatsKey, Long> sum(JdbcClient.StatementSpec statement) {
+        return statement.query((resultSet, rowNum) -> Map.entry(keyOf(resultSet), resultSet.getLong("task_count")))
+                .list()
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, Long::sum));
+    }
+
+    private static TaskStatsKey keyOf(ResultSet resultSet) throws SQLException {
+        return new TaskStatsKey(resultSet.getString("email"),
+                TaskRole.values()[resultSet.getInt("role")],
+                TaskStatus.values()[resultSet.getInt("status")],
+                TaskPriority.values()[resultSet.getInt("priority")]);
+    }
+}
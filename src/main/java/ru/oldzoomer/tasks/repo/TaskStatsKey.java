@@ -0,0 +1,20 @@
+package ru.oldzoomer.tasks.repo;
+
+import ru.oldzoomer.tasks.constant.TaskPriority;
+import ru.oldzoomer.tasks.constant.TaskRole;
+import ru.oldzoomer.tasks.constant.TaskStatus;
+
+import java.util.Comparator;
+
+/**
+ * Counter of the task statistics: tasks of one user in one role, status and priority.
+ */
+public record TaskStatsKey(String email, TaskRole role, TaskStatus status, TaskPriority priority) {
+    /**
+     * Order in which counters are updated, so that concurrent transactions lock them in the same order.
+     */
+    public static final Comparator<TaskStatsKey> ORDER = Comparator.comparing(TaskStatsKey::email)
+            .thenComparing(TaskStatsKey::role)
+            .thenComparing(TaskStatsKey::status)
+            .thenComparing(TaskStatsKey::priority);
+}
@@ -0,0 +1,42 @@
+package ru.oldzoomer.tasks.repo;
+
+import org.springframework.web.util.HtmlUtils;
+import ru.oldzoomer.tasks.constant.TaskPriority;
+import ru.oldzoomer.tasks.constant.TaskStatus;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskOutputDto;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskSearchHitDto;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Search of tasks by words of their name, description and comments,
+ * best matches first, ties broken by ID.
+ */
+public interface TaskTextSearch {
+    String TASK_COLUMNS = "t.id, t.name, t.description, t.status, t.priority, t.author_email, t.assigned_email, t.version, t.comment_count";
+
+    List<TaskSearchHitDto> search(String query, int offset, int limit);
+
+    /**
+     * Text of a highlight, which clients render as HTML: task text is user input and is escaped,
+     * only the markers around matched words become markup.
+     */
+    static String escapeHtml(String text) {
+        return HtmlUtils.htmlEscape(text, StandardCharsets.UTF_8.name());
+    }
+
+    static TaskOutputDto taskOf(ResultSet resultSet) throws SQLException {
+        return new TaskOutputDto(resultSet.getLong("id"),
+                resultSet.getString("name"),
+                resultSet.getString("description"),
+                TaskStatus.values()[resultSet.getInt("status")],
+                TaskPriority.values()[resultSet.getInt("priority")],
+                resultSet.getString("author_email"),
+                resultSet.getString("assigned_email"),
+                resultSet.getLong("version"),
+                resultSet.getLong("comment_count"));
+    }
+}
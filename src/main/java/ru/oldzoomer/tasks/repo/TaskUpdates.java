@@ -0,0 +1,20 @@
+package ru.oldzoomer.tasks.repo;
+
+import ru.oldzoomer.tasks.constant.TaskPriority;
+import ru.oldzoomer.tasks.constant.TaskStatus;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Guarded edits of the fields counted by the task statistics, which need the state a task is moved
+ * from as well as the new one. Each edit checks the ownership, the deletion flag and the version
+ * like the updates of {@link TaskRepository}, and is empty when it was refused.
+ */
+public interface TaskUpdates {
+    Optional<TaskChange> updateStatus(Long id, TaskStatus status, Instant finishedAt, Long version, String email);
+
+    Optional<TaskChange> updatePriority(Long id, TaskPriority priority, Long version, String email);
+
+    Optional<TaskChange> updateAssignedEmail(Long id, String assignedEmail, Long version, String email);
+}
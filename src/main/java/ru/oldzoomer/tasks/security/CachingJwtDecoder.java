@@ -0,0 +1,118 @@
+package ru.oldzoomer.tasks.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Remembers verified tokens, so that a client reusing its bearer token is not parsed, verified
+ * and converted to authorities again on every request.
+ * <p>
+ * Entries are keyed by the SHA-256 of the token and live until the token expires, but at most
+ * {@code maxTimeToLive}. Rejected tokens are never cached. A token revoked before it expires
+ * stays accepted until then, as it would be without the cache.
+ * <p>
+ * The decoded token carries its authorities, so {@link #authorities} neither hashes the token
+ * nor looks it up again.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+    private final JwtDecoder delegate;
+    private final Converter<Jwt, Collection<GrantedAuthority>> authoritiesConverter;
+    private final Cache<String, VerifiedJwt> tokens;
+
+    public CachingJwtDecoder(JwtDecoder delegate,
+                             Converter<Jwt, Collection<GrantedAuthority>> authoritiesConverter,
+                             long maximumSize,
+                             Duration maxTimeToLive) {
+        this(delegate, authoritiesConverter, maximumSize, maxTimeToLive, Ticker.systemTicker());
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate,
+                      Converter<Jwt, Collection<GrantedAuthority>> authoritiesConverter,
+                      long maximumSize,
+                      Duration maxTimeToLive,
+                      Ticker ticker) {
+        this.delegate = delegate;
+        this.authoritiesConverter = authoritiesConverter;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(Expiry.creating((String hash, VerifiedJwt jwt) -> timeToLive(jwt, maxTimeToLive)))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        return tokens.get(hash(token), hash -> verify(token));
+    }
+
+    /**
+     * Authorities of a token, converted once when it was verified.
+     */
+    public Collection<GrantedAuthority> authorities(Jwt jwt) {
+        return jwt instanceof VerifiedJwt verified ? verified.authorities : convert(jwt);
+    }
+
+    Cache<String, ?> getCache() {
+        return tokens;
+    }
+
+    private VerifiedJwt verify(String token) {
+        Jwt jwt = delegate.decode(token);
+        return new VerifiedJwt(jwt, convert(jwt));
+    }
+
+    private Collection<GrantedAuthority> convert(Jwt jwt) {
+        Collection<GrantedAuthority> authorities = authoritiesConverter.convert(jwt);
+        return authorities != null ? List.copyOf(authorities) : List.of();
+    }
+
+    private static Duration timeToLive(Jwt jwt, Duration maxTimeToLive) {
+        Instant expiresAt = jwt.getExpiresAt();
+        if (expiresAt == null) {
+            return maxTimeToLive;
+        }
+        Duration untilExpiry = Duration.between(Instant.now(), expiresAt);
+        if (untilExpiry.isNegative()) {
+            return Duration.ZERO;
+        }
+        return untilExpiry.compareTo(maxTimeToLive) < 0 ? untilExpiry : maxTimeToLive;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Verified token with the authorities converted from it.
+     */
+    private static final class VerifiedJwt extends Jwt {
+        private final Collection<GrantedAuthority> authorities;
+
+        private VerifiedJwt(Jwt jwt, Collection<GrantedAuthority> authorities) {
+            super(jwt.getTokenValue(), jwt.getIssuedAt(), jwt.getExpiresAt(), jwt.getHeaders(), jwt.getClaims());
+            this.authorities = authorities;
+        }
+    }
+}
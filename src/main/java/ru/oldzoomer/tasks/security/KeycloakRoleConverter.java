@@ -8,58 +8,50 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.stream.Stream;
+import java.util.Set;
 
 /**
  * Custom converter to extract roles from Keycloak JWT tokens.
  * Keycloak stores roles in realm_access.roles and resource_access.clientId.roles.
  */
 public class KeycloakRoleConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
+    private static final Set<String> IGNORED_REALM_ROLES = Set.of("offline_access", "uma_authorization");
+    private static final GrantedAuthority NOBODY = new SimpleGrantedAuthority("ROLE_NOBODY");
 
     @Override
     public Collection<GrantedAuthority> convert(Jwt jwt) {
-        Collection<GrantedAuthority> authorities = new ArrayList<>();
+        List<GrantedAuthority> authorities = new ArrayList<>();
 
         // Extract realm-level roles
-        Map<String, Object> realmAccess = jwt.getClaim("realm_access");
-        if (realmAccess != null && realmAccess.containsKey("roles") &&
-                realmAccess.get("roles") instanceof List<?> realmRoles) {
-            realmRoles.stream()
-                    .filter(role -> !role.equals("offline_access") && !role.equals("uma_authorization"))
-                    .map(role -> {
-                        if (role instanceof String roleString) {
-                            return new SimpleGrantedAuthority("ROLE_" + roleString.toUpperCase());
-                        } else {
-                            return new SimpleGrantedAuthority("ROLE_NOBODY");
-                        }
-                    })
-                    .forEach(authorities::add);
+        if (jwt.getClaims().get("realm_access") instanceof Map<?, ?> realmAccess
+                && realmAccess.get("roles") instanceof List<?> realmRoles) {
+            for (Object role : realmRoles) {
+                if (!IGNORED_REALM_ROLES.contains(role)) {
+                    authorities.add(authorityOf(role));
+                }
+            }
         }
 
         // Extract client-level roles (specific to this client)
-        Map<String, Object> resourceAccess = jwt.getClaim("resource_access");
-        if (resourceAccess != null) {
-            resourceAccess.values().stream()
-                    .filter(Map.class::isInstance)
-                    .flatMap(v -> {
-                        Map<?, ?> clientRoles = (Map<?, ?>) v;
-                        if (clientRoles.get("roles") instanceof List<?> roles) {
-                            return roles.stream();
-                        } else {
-                            return Stream.of();
-                        }
-                    })
-                    .map(role -> {
-                        if (role instanceof String roleString) {
-                            return new SimpleGrantedAuthority("ROLE_" + roleString.toUpperCase());
-                        } else {
-                            return new SimpleGrantedAuthority("ROLE_NOBODY");
-                        }
-                    })
-                    .forEach(authorities::add);
+        if (jwt.getClaims().get("resource_access") instanceof Map<?, ?> resourceAccess) {
+            for (Object clientAccess : resourceAccess.values()) {
+                if (clientAccess instanceof Map<?, ?> clientRoles && clientRoles.get("roles") instanceof List<?> roles) {
+                    for (Object role : roles) {
+                        authorities.add(authorityOf(role));
+                    }
+                }
+            }
         }
 
         return authorities;
     }
-}
\ No newline at end of file
+
+    private static GrantedAuthority authorityOf(Object role) {
+        if (role instanceof String roleString) {
+            return new SimpleGrantedAuthority("ROLE_" + roleString.toUpperCase(Locale.ROOT));
+        }
+        return NOBODY;
+    }
+}
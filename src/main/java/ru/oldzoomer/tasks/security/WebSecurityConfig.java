@@ -1,23 +1,47 @@
 package ru.oldzoomer.tasks.security;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
-import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
 public class WebSecurityConfig {
 
     @Bean
-    SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    SecurityFilterChain filterChain(HttpSecurity http, CachingJwtDecoder jwtDecoder) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(AbstractHttpConfigurer::disable)
@@ -26,20 +50,82 @@ public class WebSecurityConfig {
                         .anyRequest().authenticated())
                 .oauth2ResourceServer(oauth2 -> oauth2
                         .jwt(jwt -> jwt
-                                .jwtAuthenticationConverter(keycloakJwtConverter())
+                                .decoder(jwtDecoder)
+                                .jwtAuthenticationConverter(keycloakJwtConverter(jwtDecoder))
                         )
                 );
         return http.build();
     }
 
-    private JwtAuthenticationConverter keycloakJwtConverter() {
-        JwtGrantedAuthoritiesConverter jwtGrantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
-        jwtGrantedAuthoritiesConverter.setAuthoritiesClaimName("scope");
+    /**
+     * Keys of the issuer, fetched on first use or by {@link #prefetchJwks}, and refreshed in the
+     * background ahead of their expiry, so that no request waits for Keycloak after startup.
+     * The source is closed, and its refresh stopped, with the context.
+     */
+    @Bean
+    JWKSource<SecurityContext> jwkSource(
+            @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri,
+            @Value("${tasks.security.jwks.time-to-live:5m}") Duration timeToLive,
+            @Value("${tasks.security.jwks.refresh-ahead:30s}") Duration refreshAhead,
+            @Value("${tasks.security.jwks.refresh-timeout:15s}") Duration refreshTimeout) throws MalformedURLException {
+        return JWKSourceBuilder.<SecurityContext>create(URI.create(jwkSetUri).toURL())
+                .cache(timeToLive.toMillis(), refreshTimeout.toMillis())
+                .refreshAheadCache(refreshAhead.toMillis(), true)
+                .retrying(true)
+                .build();
+    }
+
+    /**
+     * Tokens are accepted only when signed with one of the configured algorithms, as a
+     * comma-separated list of JWS names such as {@code RS256,ES256}.
+     */
+    @Bean
+    CachingJwtDecoder jwtDecoder(
+            JWKSource<SecurityContext> jwkSource,
+            @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuerUri,
+            @Value("${spring.security.oauth2.resourceserver.jwt.jws-algorithms:RS256}") List<String> jwsAlgorithms,
+            @Value("${tasks.security.token-cache.maximum-size:10000}") long maximumSize,
+            @Value("${tasks.security.token-cache.max-time-to-live:10m}") Duration maxTimeToLive,
+            MeterRegistry meterRegistry) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        Set<JWSAlgorithm> algorithms = jwsAlgorithms.stream()
+                .map(String::strip)
+                .map(JWSAlgorithm::parse)
+                .collect(Collectors.toUnmodifiableSet());
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithms, jwkSource));
+        // Claims are checked by the Spring validators below
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
 
-        KeycloakRoleConverter keycloakRoleConverter = new KeycloakRoleConverter();
+        NimbusJwtDecoder verifyingDecoder = new NimbusJwtDecoder(jwtProcessor);
+        verifyingDecoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuerUri));
+
+        CachingJwtDecoder jwtDecoder = new CachingJwtDecoder(verifyingDecoder, new KeycloakRoleConverter(),
+                maximumSize, maxTimeToLive);
+        CaffeineCacheMetrics.monitor(meterRegistry, jwtDecoder.getCache(), "jwt");
+        return jwtDecoder;
+    }
+
+    @SuppressWarnings("unchecked")
+    @EventListener(ApplicationReadyEvent.class)
+    void prefetchJwks(ApplicationReadyEvent event) {
+        if (!event.getApplicationContext().getEnvironment()
+                .getProperty("tasks.security.jwks.prefetch", Boolean.class, true)) {
+            return;
+        }
+        JWKSource<SecurityContext> jwkSource = event.getApplicationContext().getBean("jwkSource", JWKSource.class);
+        Thread.ofVirtual().name("jwks-prefetch").start(() -> {
+            try {
+                jwkSource.get(new JWKSelector(new JWKMatcher.Builder().build()), null);
+            } catch (KeySourceException e) {
+                log.warn("Keys of the token issuer were not prefetched: {}", e.getMessage());
+            }
+        });
+    }
 
+    private JwtAuthenticationConverter keycloakJwtConverter(CachingJwtDecoder jwtDecoder) {
         JwtAuthenticationConverter jwtConverter = new JwtAuthenticationConverter();
-        jwtConverter.setJwtGrantedAuthoritiesConverter(keycloakRoleConverter);
+        jwtConverter.setJwtGrantedAuthoritiesConverter(jwtDecoder::authorities);
         return jwtConverter;
     }
-}
\ No newline at end of file
+}
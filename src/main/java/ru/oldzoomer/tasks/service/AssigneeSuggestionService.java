@@ -0,0 +1,8 @@
+package ru.oldzoomer.tasks.service;
+
+import java.util.List;
+
+public interface AssigneeSuggestionService {
+    List<String> suggest(String prefix, int limit);
+    void recordUsage(String email, long count);
+}
@@ -0,0 +1,7 @@
+package ru.oldzoomer.tasks.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface ChangeFeedService {
+    SseEmitter subscribe(String email, Long lastEventId);
+}
@@ -2,14 +2,21 @@ package ru.oldzoomer.tasks.service;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.oldzoomer.tasks.dto.input.Cursor;
+import ru.oldzoomer.tasks.dto.output.comments.CommentOutputDto;
 import ru.oldzoomer.tasks.entity.Comments;
 
+import java.util.Set;
+
 public interface CommentsService {
     Comments create(Comments comment, Long taskId, String email);
 
-    Comments edit(Long id, Comments changes, String email);
+    Comments edit(Long id, Comments changes, Set<Long> versions, String email);
     void delete(Long id, String email);
-    Comments getComment(Long id);
-    Page<Comments> getMultipleCommentsForUser(String email, Pageable pageable);
-    Page<Comments> getMultipleCommentsForTask(Long taskId, Pageable pageable);
+    CommentOutputDto getComment(Long id);
+    Page<CommentOutputDto> getMultipleCommentsForUser(String email, Pageable pageable);
+    Page<CommentOutputDto> getMultipleCommentsForTask(Long taskId, Pageable pageable);
+    Slice<CommentOutputDto> scrollCommentsForUser(String email, Cursor after, int size);
+    Slice<CommentOutputDto> scrollCommentsForTask(Long taskId, Cursor after, int size);
 }
@@ -0,0 +1,5 @@
+package ru.oldzoomer.tasks.service;
+
+public interface TaskArchiveService {
+    int archive();
+}
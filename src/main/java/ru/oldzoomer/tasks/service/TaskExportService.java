@@ -0,0 +1,5 @@
+package ru.oldzoomer.tasks.service;
+
+public interface TaskExportService {
+    void exportTasks(String email, boolean withComments, TaskExportSink sink);
+}
@@ -0,0 +1,12 @@
+package ru.oldzoomer.tasks.service;
+
+import ru.oldzoomer.tasks.dto.output.comments.CommentExportDto;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskOutputDto;
+
+/**
+ * Receiver of exported rows: every task is followed by its comments.
+ */
+public interface TaskExportSink {
+    void task(TaskOutputDto task);
+    void comment(CommentExportDto comment);
+}
@@ -0,0 +1,9 @@
+package ru.oldzoomer.tasks.service;
+
+import ru.oldzoomer.tasks.dto.output.tasks.ImportResultDto;
+
+import java.io.InputStream;
+
+public interface TaskImportService {
+    ImportResultDto importTasks(InputStream input, String email);
+}
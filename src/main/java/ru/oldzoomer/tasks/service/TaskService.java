@@ -2,21 +2,42 @@ package ru.oldzoomer.tasks.service;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import ru.oldzoomer.tasks.constant.TaskPriority;
+import ru.oldzoomer.tasks.constant.TaskScrollOrder;
+import ru.oldzoomer.tasks.constant.TaskSearchOrder;
 import ru.oldzoomer.tasks.constant.TaskStatus;
+import ru.oldzoomer.tasks.dto.input.Cursor;
+import ru.oldzoomer.tasks.dto.input.tasks.TaskSearchDto;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskOutputDto;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskSearchHitDto;
 import ru.oldzoomer.tasks.entity.Task;
 
+import java.util.List;
+import java.util.Set;
+
 public interface TaskService {
     Task create(Task task, String email, String assignedEmail);
+    List<Task> createAll(List<Task> tasks, String email);
     void delete(Long id, String email);
 
-    Task editStatus(Long id, TaskStatus status, String email);
+    TaskOutputDto editStatus(Long id, TaskStatus status, Set<Long> versions, String email);
+
+    TaskOutputDto editPriority(Long id, TaskPriority priority, Set<Long> versions, String email);
+
+    TaskOutputDto editNameAndDescription(Long id, Task task, Set<Long> versions, String email);
+
+    TaskOutputDto editAssignedUser(Long id, String assignedEmail, Set<Long> versions, String email);
 
-    Task editPriority(Long id, TaskPriority priority, String email);
+    Set<Long> editStatusOfAll(Set<Long> ids, TaskStatus status, String email);
 
-    Task editNameAndDescription(Long id, Task task, String email);
+    Set<Long> editPriorityOfAll(Set<Long> ids, TaskPriority priority, String email);
 
-    Task editAssignedUser(Long id, String assignedEmail, String email);
-    Task getTask(Long id);
-    Page<Task> getMultipleTasksForUser(String email, Pageable pageable);
+    Set<Long> editAssignedUserOfAll(Set<Long> ids, String assignedEmail, String email);
+    TaskOutputDto getTask(Long id);
+    Page<TaskOutputDto> getMultipleTasksForUser(String email, Pageable pageable);
+    Slice<TaskOutputDto> scrollTasksForUser(String email, Cursor after, TaskScrollOrder order, int size);
+    Slice<TaskOutputDto> scrollInbox(String email, Set<TaskStatus> statuses, Cursor after, int size);
+    Slice<TaskOutputDto> searchTasks(TaskSearchDto filter, Cursor after, TaskSearchOrder order, int size);
+    Slice<TaskSearchHitDto> searchText(String query, Pageable pageable);
 }
@@ -0,0 +1,12 @@
+package ru.oldzoomer.tasks.service;
+
+import ru.oldzoomer.tasks.dto.output.tasks.TaskOutputDto;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskStatisticsDto;
+
+import java.util.Collection;
+
+public interface TaskStatisticsService {
+    TaskStatisticsDto getStatistics(String email);
+    void record(Collection<TaskOutputDto> removed, Collection<TaskOutputDto> added);
+    void reconcile();
+}
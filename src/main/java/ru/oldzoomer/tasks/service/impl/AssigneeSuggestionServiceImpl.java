@@ -0,0 +1,118 @@
+package ru.oldzoomer.tasks.service.impl;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.oldzoomer.tasks.repo.EmailUsage;
+import ru.oldzoomer.tasks.repo.TaskRepository;
+import ru.oldzoomer.tasks.service.AssigneeSuggestionService;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Suggests e-mails by prefix from an in-memory sorted map, most used first.
+ * <p>
+ * The map is filled from the tasks table once the application is ready and then only
+ * counts new usages, after their transaction commits. Usages committed before the map is filled
+ * are held back and added once the load is done, so a usage committed during the load is counted
+ * once, by the load or by the hold-back; only one committed before the load started, while the
+ * application was still starting, counts twice. Usages are never decremented:
+ * the rank reflects how often an e-mail was picked, not how many tasks carry it now.
+ * A lookup walks the sub-map of the prefix and keeps the best {@code limit} entries in a heap.
+ */
+@Service
+@AllArgsConstructor
+public class AssigneeSuggestionServiceImpl implements AssigneeSuggestionService {
+    private static final Comparator<Suggestion> BY_RANK = Comparator.comparingLong(Suggestion::count).reversed()
+            .thenComparing(Suggestion::email);
+
+    private final TaskRepository taskRepository;
+    private final ConcurrentSkipListMap<String, Usage> usages = new ConcurrentSkipListMap<>();
+    private final List<EmailUsage> heldBack = new ArrayList<>();
+    private final AtomicBoolean loaded = new AtomicBoolean();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        taskRepository.countAssignedEmailUsages().forEach(usage -> add(usage.email(), usage.count()));
+        taskRepository.countAuthorEmailUsages().forEach(usage -> add(usage.email(), usage.count()));
+        synchronized (heldBack) {
+            heldBack.forEach(usage -> add(usage.email(), usage.count()));
+            heldBack.clear();
+            loaded.set(true);
+        }
+    }
+
+    @Override
+    public List<String> suggest(String prefix, int limit) {
+        String from = prefix.toLowerCase(Locale.ROOT);
+        PriorityQueue<Suggestion> best = new PriorityQueue<>(limit + 1, BY_RANK.reversed());
+        for (Usage usage : usages.subMap(from, true, from + Character.MAX_VALUE, false).values()) {
+            best.offer(new Suggestion(usage.email, usage.count.sum()));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        List<Suggestion> suggestions = new ArrayList<>(best);
+        suggestions.sort(BY_RANK);
+        return suggestions.stream().map(Suggestion::email).toList();
+    }
+
+    @Override
+    public void recordUsage(String email, long count) {
+        if (email == null || count == 0) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            count(email, count);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                count(email, count);
+            }
+        });
+    }
+
+    private void count(String email, long count) {
+        if (!loaded.get()) {
+            synchronized (heldBack) {
+                if (!loaded.get()) {
+                    heldBack.add(new EmailUsage(email, count));
+                    return;
+                }
+            }
+        }
+        add(email, count);
+    }
+
+    private void add(String email, long count) {
+        usages.computeIfAbsent(email.toLowerCase(Locale.ROOT), key -> new Usage(email))
+                .count.add(count);
+    }
+
+    private static final class Usage {
+        private final String email;
+        private final LongAdder count = new LongAdder();
+
+        private Usage(String email) {
+            this.email = email;
+        }
+    }
+
+    private record Suggestion(String email, long count) {
+    }
+}
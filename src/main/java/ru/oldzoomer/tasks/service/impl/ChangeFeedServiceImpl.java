@@ -0,0 +1,191 @@
+package ru.oldzoomer.tasks.service.impl;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.oldzoomer.tasks.constant.ChangeType;
+import ru.oldzoomer.tasks.dto.output.ChangeEventDto;
+import ru.oldzoomer.tasks.event.ChangeEvent;
+import ru.oldzoomer.tasks.service.ChangeFeedService;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes committed changes to the subscribed authors and assigned users as server-sent events.
+ * <p>
+ * Every subscription has a bounded queue drained by its own virtual thread, which sends a
+ * heartbeat comment whenever the queue stays empty for the heartbeat interval. Publishing only
+ * offers to the queues, so a slow client never blocks a committing request: when its queue is
+ * full, the subscription is closed and the client reconnects with {@code Last-Event-ID}.
+ * <p>
+ * The latest events are kept for replay. Event IDs start from the current time in microseconds,
+ * so IDs of a previous process are older than the replay and get a {@link ChangeType#RESET} event,
+ * as does a client that missed more than the replay or its queue can hold.
+ * Events are kept in memory of one instance.
+ */
+@Service
+@Log4j2
+public class ChangeFeedServiceImpl implements ChangeFeedService {
+    private final Map<String, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final ArrayDeque<FeedEvent> replay = new ArrayDeque<>();
+    private final int replaySize;
+    private final int bufferSize;
+    private final Duration heartbeat;
+    private final Duration timeout;
+    private long lastId = System.currentTimeMillis() * 1000;
+
+    public ChangeFeedServiceImpl(@Value("${tasks.feed.replay-size:10000}") int replaySize,
+                                 @Value("${tasks.feed.buffer-size:256}") int bufferSize,
+                                 @Value("${tasks.feed.heartbeat:15s}") Duration heartbeat,
+                                 @Value("${tasks.feed.timeout:30m}") Duration timeout) {
+        this.replaySize = replaySize;
+        this.bufferSize = bufferSize;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+    }
+
+    @TransactionalEventListener
+    public void onChange(ChangeEvent event) {
+        publish(event);
+    }
+
+    @Override
+    public SseEmitter subscribe(String email, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscription subscription = new Subscription(email, emitter);
+
+        synchronized (this) {
+            if (lastEventId != null) {
+                replayTo(subscription, lastEventId);
+            }
+            subscriptions.compute(email, (key, ofEmail) -> {
+                Set<Subscription> result = ofEmail != null ? ofEmail : ConcurrentHashMap.newKeySet();
+                result.add(subscription);
+                return result;
+            });
+        }
+
+        emitter.onCompletion(() -> subscription.close(false));
+        emitter.onTimeout(() -> subscription.close(false));
+        emitter.onError(e -> subscription.close(false));
+        Thread.ofVirtual().name("change-feed-" + email).start(subscription);
+        return emitter;
+    }
+
+    private synchronized void publish(ChangeEvent event) {
+        FeedEvent feedEvent = new FeedEvent(++lastId, event);
+        replay.addLast(feedEvent);
+        if (replay.size() > replaySize) {
+            replay.removeFirst();
+        }
+
+        for (String recipient : event.recipients()) {
+            for (Subscription subscription : subscriptions.getOrDefault(recipient, Set.of())) {
+                subscription.offer(feedEvent);
+            }
+        }
+    }
+
+    private void replayTo(Subscription subscription, long lastEventId) {
+        long oldestKept = replay.isEmpty() ? lastId + 1 : replay.getFirst().id();
+        boolean lost = lastEventId > lastId || lastEventId + 1 < oldestKept;
+
+        List<FeedEvent> missed = new ArrayList<>();
+        if (!lost) {
+            for (FeedEvent event : replay) {
+                if (event.id() > lastEventId && event.change().recipients().contains(subscription.email)) {
+                    missed.add(event);
+                }
+            }
+        }
+
+        if (lost || missed.size() >= bufferSize) {
+            subscription.offer(new FeedEvent(lastId, new ChangeEvent(ChangeType.RESET, null, null, null, Set.of())));
+        } else {
+            missed.forEach(subscription::offer);
+        }
+    }
+
+    private record FeedEvent(long id, ChangeEvent change) {
+    }
+
+    private final class Subscription implements Runnable {
+        private final String email;
+        private final SseEmitter emitter;
+        private final BlockingQueue<FeedEvent> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile Thread drainer;
+
+        private Subscription(String email, SseEmitter emitter) {
+            this.email = email;
+            this.emitter = emitter;
+        }
+
+        private void offer(FeedEvent event) {
+            if (!queue.offer(event)) {
+                log.warn("Change feed of {} is too slow, closing it", email);
+                close(true);
+            }
+        }
+
+        @Override
+        public void run() {
+            drainer = Thread.currentThread();
+            try {
+                while (!closed.get()) {
+                    FeedEvent event = queue.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+                    if (closed.get()) {
+                        break;
+                    }
+                    if (event == null) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        ChangeEvent change = event.change();
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(event.id()))
+                                .name(change.type().name())
+                                .data(new ChangeEventDto(change.type(), change.taskId(), change.task(), change.comment()),
+                                        MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Change feed of {} is gone: {}", email, e.getMessage());
+            } finally {
+                close(true);
+            }
+        }
+
+        private void close(boolean completeEmitter) {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            subscriptions.computeIfPresent(email, (key, ofEmail) -> {
+                ofEmail.remove(this);
+                return ofEmail.isEmpty() ? null : ofEmail;
+            });
+            if (completeEmitter) {
+                emitter.complete();
+            }
+            Thread thread = drainer;
+            if (thread != null && thread != Thread.currentThread()) {
+                thread.interrupt();
+            }
+        }
+    }
+}
@@ -1,19 +1,35 @@
 package ru.oldzoomer.tasks.service.impl;
 
 import lombok.AllArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.oldzoomer.tasks.config.CacheConfig;
+import ru.oldzoomer.tasks.constant.ChangeType;
+import ru.oldzoomer.tasks.dto.input.Cursor;
+import ru.oldzoomer.tasks.dto.output.comments.CommentOutputDto;
 import ru.oldzoomer.tasks.entity.Comments;
 import ru.oldzoomer.tasks.entity.Task;
+import ru.oldzoomer.tasks.event.ChangeEvent;
 import ru.oldzoomer.tasks.exception.CommentNotFoundException;
 import ru.oldzoomer.tasks.exception.ForbiddenChangesException;
+import ru.oldzoomer.tasks.exception.PreconditionFailedException;
 import ru.oldzoomer.tasks.exception.TaskNotFoundException;
+import ru.oldzoomer.tasks.mapper.CommentMapper;
 import ru.oldzoomer.tasks.repo.CommentsRepository;
 import ru.oldzoomer.tasks.repo.TaskRepository;
 import ru.oldzoomer.tasks.service.CommentsService;
 
+import java.util.Set;
+
 @Service
 @AllArgsConstructor
 public class CommentsServiceImpl implements CommentsService {
@@ -21,67 +37,115 @@ public class CommentsServiceImpl implements CommentsService {
     private static final String COMMENT_NOT_FOUND = "Comment not found.";
     private final CommentsRepository commentsRepository;
     private final TaskRepository taskRepository;
+    private final CommentMapper commentMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
 
     @Override
     @Transactional
     public Comments create(Comments comment, Long taskId, String email) {
-        Task task = taskRepository.findById(taskId)
+        Task task = taskRepository.findActiveById(taskId)
                 .orElseThrow(() -> new TaskNotFoundException("Task not found!"));
 
         comment.setAuthorEmail(email);
         comment.setTask(task);
 
-        return commentsRepository.save(comment);
+        Comments saved = commentsRepository.save(comment);
+        countComments(task, 1);
+        publish(ChangeType.COMMENT_CREATED, saved);
+        return saved;
     }
 
     @Override
     @Transactional
-    public Comments edit(Long id, Comments changes, String email) {
-        Comments comment = commentsRepository.findById(id)
+    @CacheEvict(cacheNames = CacheConfig.COMMENTS, key = "#id")
+    public Comments edit(Long id, Comments changes, Set<Long> versions, String email) {
+        Comments comment = commentsRepository.findActiveById(id)
                 .orElseThrow(() -> new CommentNotFoundException(COMMENT_NOT_FOUND));
 
         if (!comment.getAuthorEmail().equals(email)) {
             throw new ForbiddenChangesException("Changes of data must do only his author!");
+        } else if (versions != null && !versions.contains(comment.getVersion())) {
+            throw new PreconditionFailedException("Comment was changed since the given version!");
         } else {
             comment.setText(changes.getText());
-            return commentsRepository.save(comment);
+            Comments saved = commentsRepository.saveAndFlush(comment);
+            publish(ChangeType.COMMENT_UPDATED, saved);
+            return saved;
         }
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.COMMENTS, key = "#id")
     public void delete(Long id, String email) {
-        Comments comments = commentsRepository.findById(id)
+        Comments comments = commentsRepository.findActiveById(id)
                 .orElseThrow(() -> new CommentNotFoundException(COMMENT_NOT_FOUND));
 
         if (!comments.getAuthorEmail().equals(email)) {
             throw new ForbiddenChangesException("Changes of data must do only his author!");
         } else {
-            Task task = comments.getTask();
-            task.getComments().remove(comments);
             commentsRepository.delete(comments);
+            countComments(comments.getTask(), -1);
+            publish(ChangeType.COMMENT_DELETED, comments);
         }
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Comments getComment(Long id) {
-        return commentsRepository.findById(id)
+    @Cacheable(cacheNames = CacheConfig.COMMENTS, key = "#id", sync = true)
+    public CommentOutputDto getComment(Long id) {
+        return commentsRepository.findOutputById(id)
                 .orElseThrow(() -> new CommentNotFoundException(COMMENT_NOT_FOUND));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<Comments> getMultipleCommentsForUser(String email, Pageable pageable) {
-        return commentsRepository.findAllByAuthorEmail(email, pageable);
+    public Page<CommentOutputDto> getMultipleCommentsForUser(String email, Pageable pageable) {
+        return commentsRepository.findOutputByAuthorEmail(email, pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<Comments> getMultipleCommentsForTask(Long taskId, Pageable pageable) {
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new TaskNotFoundException("Task not found."));
+    public Page<CommentOutputDto> getMultipleCommentsForTask(Long taskId, Pageable pageable) {
+        if (!taskRepository.existsActiveById(taskId)) {
+            throw new TaskNotFoundException("Task not found.");
+        }
+
+        return commentsRepository.findOutputByTaskId(taskId, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<CommentOutputDto> scrollCommentsForUser(String email, Cursor after, int size) {
+        return commentsRepository.findOutputByAuthorEmailAfterId(email, after.id(), PageRequest.ofSize(size));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<CommentOutputDto> scrollCommentsForTask(Long taskId, Cursor after, int size) {
+        if (!taskRepository.existsActiveById(taskId)) {
+            throw new TaskNotFoundException("Task not found.");
+        }
+
+        return commentsRepository.findOutputByTaskIdAfterId(taskId, after.id(), PageRequest.ofSize(size));
+    }
+
+    /*
+     * The count is moved by one UPDATE of the task row, never through Task.comments, and the cached
+     * task is evicted after commit by the transaction-aware cache manager.
+     */
+    private void countComments(Task task, long delta) {
+        taskRepository.addCommentCount(task.getId(), delta);
+        Cache cache = cacheManager.getCache(CacheConfig.TASKS);
+        if (cache != null) {
+            cache.evict(task.getId());
+        }
+    }
 
-        return commentsRepository.findAllByTask(task, pageable);
+    private void publish(ChangeType type, Comments comment) {
+        Task task = comment.getTask();
+        eventPublisher.publishEvent(ChangeEvent.ofComment(type, task.getId(), commentMapper.map(comment),
+                task.getAuthorEmail(), task.getAssignedEmail()));
     }
 }
@@ -0,0 +1,80 @@
+package ru.oldzoomer.tasks.service.impl;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.oldzoomer.tasks.repo.TaskArchiveRepository;
+import ru.oldzoomer.tasks.repo.TaskArchiveRepository.ArchivableTask;
+import ru.oldzoomer.tasks.service.TaskArchiveService;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Keeps {@code tasks} and {@code comments} down to the working set by moving tasks finished more
+ * than {@code retention} ago, with their comments, into the archive. Every chunk of up to
+ * {@code batch-size} tasks is moved in its own transaction, and a run moves at most
+ * {@code batches-per-run} chunks. Archived tasks stay readable through {@code getTask} and keep
+ * counting in the task statistics; they are no longer listed, searched, exported or editable.
+ */
+@Service
+@Log4j2
+public class TaskArchiveServiceImpl implements TaskArchiveService {
+    private final TaskArchiveRepository taskArchiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int batchSize;
+    private final int batchesPerRun;
+
+    public TaskArchiveServiceImpl(TaskArchiveRepository taskArchiveRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${tasks.archive.retention:90d}") Duration retention,
+                                  @Value("${tasks.archive.batch-size:500}") int batchSize,
+                                  @Value("${tasks.archive.batches-per-run:20}") int batchesPerRun) {
+        this.taskArchiveRepository = taskArchiveRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.batchesPerRun = batchesPerRun;
+    }
+
+    /**
+     * Runs up to {@code batches-per-run} chunks and returns the number of archived tasks.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${tasks.archive.interval:1h}", initialDelayString = "${tasks.archive.interval:1h}")
+    public int archive() {
+        Instant cutoff = Instant.now().minus(retention);
+        int archived = 0;
+        for (int batch = 0; batch < batchesPerRun; batch++) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            if (moved == null || moved == 0) {
+                break;
+            }
+            archived += moved;
+            if (moved < batchSize) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            log.info("Archived {} finished tasks", archived);
+        }
+        return archived;
+    }
+
+    private int archiveBatch(Instant cutoff) {
+        List<ArchivableTask> tasks = taskArchiveRepository.lockArchivable(cutoff, batchSize);
+        if (tasks.isEmpty()) {
+            return 0;
+        }
+        taskArchiveRepository.createPartitions(new TreeSet<>(tasks.stream()
+                .map(ArchivableTask::finishedMonth)
+                .toList()));
+        return taskArchiveRepository.move(tasks.stream().map(ArchivableTask::id).toList(), Instant.now());
+    }
+}
@@ -0,0 +1,50 @@
+package ru.oldzoomer.tasks.service.impl;
+
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.oldzoomer.tasks.dto.output.comments.CommentExportDto;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskOutputDto;
+import ru.oldzoomer.tasks.repo.CommentsRepository;
+import ru.oldzoomer.tasks.repo.TaskRepository;
+import ru.oldzoomer.tasks.service.TaskExportService;
+import ru.oldzoomer.tasks.service.TaskExportSink;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Merges two forward-only cursors, tasks ordered by ID and their comments ordered by task ID,
+ * so every row is handed to the sink once and then dropped. Both queries are projections,
+ * so the persistence context stays empty however many rows are exported.
+ */
+@Service
+@AllArgsConstructor
+public class TaskExportServiceImpl implements TaskExportService {
+    private final TaskRepository taskRepository;
+    private final CommentsRepository commentsRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTasks(String email, boolean withComments, TaskExportSink sink) {
+        try (Stream<TaskOutputDto> tasks = taskRepository.streamOutputByAuthorEmail(email);
+             Stream<CommentExportDto> comments = withComments
+                     ? commentsRepository.streamExportByTaskAuthorEmail(email)
+                     : Stream.empty()) {
+            Iterator<CommentExportDto> commentIterator = comments.iterator();
+            CommentExportDto comment = commentIterator.hasNext() ? commentIterator.next() : null;
+
+            for (Iterator<TaskOutputDto> taskIterator = tasks.iterator(); taskIterator.hasNext(); ) {
+                TaskOutputDto task = taskIterator.next();
+                sink.task(task);
+
+                while (comment != null && comment.taskId() <= task.id()) {
+                    if (comment.taskId().equals(task.id())) {
+                        sink.comment(comment);
+                    }
+                    comment = commentIterator.hasNext() ? commentIterator.next() : null;
+                }
+            }
+        }
+    }
+}
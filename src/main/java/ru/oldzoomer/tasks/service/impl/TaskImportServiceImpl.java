@@ -0,0 +1,405 @@
+package ru.oldzoomer.tasks.service.impl;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.oldzoomer.tasks.config.CacheConfig;
+import ru.oldzoomer.tasks.constant.ChangeType;
+import ru.oldzoomer.tasks.dto.input.comments.CreateCommentDto;
+import ru.oldzoomer.tasks.dto.input.tasks.CreateTaskDto;
+import ru.oldzoomer.tasks.dto.output.tasks.ImportErrorDto;
+import ru.oldzoomer.tasks.dto.output.tasks.ImportResultDto;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskOutputDto;
+import ru.oldzoomer.tasks.entity.Comments;
+import ru.oldzoomer.tasks.entity.Task;
+import ru.oldzoomer.tasks.event.ChangeEvent;
+import ru.oldzoomer.tasks.mapper.CommentMapper;
+import ru.oldzoomer.tasks.mapper.TaskMapper;
+import ru.oldzoomer.tasks.repo.CommentsRepository;
+import ru.oldzoomer.tasks.repo.TaskRepository;
+import ru.oldzoomer.tasks.service.AssigneeSuggestionService;
+import ru.oldzoomer.tasks.service.TaskImportService;
+import ru.oldzoomer.tasks.service.TaskStatisticsService;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports NDJSON in the format of the export: {@code {"type":"task","data":{...}}} lines, each
+ * followed by its {@code {"type":"comment","data":{...}}} lines. A comment before any task line
+ * refers to an existing task by {@code taskId}.
+ * <p>
+ * The request thread parses and validates lines into chunks and hands them over a bounded queue
+ * to a writer thread, which saves every chunk in its own transaction with batched inserts. A full
+ * queue blocks the reader, so reading and writing overlap while at most {@code queue-capacity}
+ * chunks are held in memory. A failed line or chunk is reported and the import goes on.
+ */
+@Service
+@Log4j2
+public class TaskImportServiceImpl implements TaskImportService {
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final List<ImportLine> END = List.of();
+
+    private final TaskRepository taskRepository;
+    private final CommentsRepository commentsRepository;
+    private final AssigneeSuggestionService assigneeSuggestionService;
+    private final TaskStatisticsService taskStatisticsService;
+    private final TaskMapper taskMapper;
+    private final CacheManager cacheManager;
+    private final CommentMapper commentMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int queueCapacity;
+
+    public TaskImportServiceImpl(TaskRepository taskRepository,
+                                 CommentsRepository commentsRepository,
+                                 AssigneeSuggestionService assigneeSuggestionService,
+                                 TaskStatisticsService taskStatisticsService,
+                                 TaskMapper taskMapper,
+                                 CacheManager cacheManager,
+                                 CommentMapper commentMapper,
+                                 ApplicationEventPublisher eventPublisher,
+                                 Validator validator,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${tasks.import.chunk-size:500}") int chunkSize,
+                                 @Value("${tasks.import.queue-capacity:4}") int queueCapacity) {
+        this.taskRepository = taskRepository;
+        this.commentsRepository = commentsRepository;
+        this.assigneeSuggestionService = assigneeSuggestionService;
+        this.taskStatisticsService = taskStatisticsService;
+        this.taskMapper = taskMapper;
+        this.cacheManager = cacheManager;
+        this.commentMapper = commentMapper;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    @Override
+    public ImportResultDto importTasks(InputStream input, String email) {
+        Report report = new Report();
+        BlockingQueue<List<ImportLine>> chunks = new ArrayBlockingQueue<>(queueCapacity);
+        Thread writer = Thread.ofVirtual().name("task-import-writer").start(() -> {
+            try {
+                for (List<ImportLine> chunk = chunks.take(); chunk != END; chunk = chunks.take()) {
+                    write(chunk, email, report);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        long lines = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<ImportLine> chunk = new ArrayList<>(chunkSize);
+            ImportedTask lastTask = null;
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                lines++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                ImportLine parsed = parse(lines, line, lastTask, report);
+                if (parsed == null) {
+                    continue;
+                }
+                if (parsed.task() != null) {
+                    lastTask = parsed.task();
+                }
+                if (parsed.task() == ImportedTask.REJECTED) {
+                    continue;
+                }
+
+                chunk.add(parsed);
+                if (chunk.size() == chunkSize) {
+                    handOver(chunks, chunk, writer);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                handOver(chunks, chunk, writer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            handOver(chunks, END, writer);
+            join(writer);
+        }
+
+        return report.result(lines);
+    }
+
+    /*
+     * A task line that fails validation is returned as REJECTED: it still becomes the parent of
+     * the following comments, so they are reported instead of being attached to the previous task.
+     */
+    private ImportLine parse(long number, String line, ImportedTask lastTask, Report report) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JacksonException e) {
+            report.fail(number, List.of("Invalid JSON: " + e.getOriginalMessage()));
+            return null;
+        }
+
+        String type = node.path("type").asString("");
+        JsonNode data = node.path("data");
+        try {
+            switch (type) {
+                case "task" -> {
+                    CreateTaskDto dto = objectMapper.treeToValue(data, CreateTaskDto.class);
+                    List<String> errors = violations(validator.validate(dto));
+                    if (!errors.isEmpty()) {
+                        report.fail(number, errors);
+                        return new ImportLine(number, ImportedTask.REJECTED, null, null, null);
+                    }
+                    return new ImportLine(number, new ImportedTask(taskMapper.map(dto)), null, null, null);
+                }
+                case "comment" -> {
+                    CreateCommentDto dto = objectMapper.treeToValue(data, CreateCommentDto.class);
+                    List<String> errors = lastTask != null
+                            ? violations(validator.validateProperty(dto, "text"))
+                            : violations(validator.validate(dto));
+                    if (!errors.isEmpty()) {
+                        report.fail(number, errors);
+                        return null;
+                    }
+                    Long taskId = lastTask == null ? dto.taskId() : null;
+                    return new ImportLine(number, null, commentMapper.map(dto), lastTask, taskId);
+                }
+                default -> {
+                    report.fail(number, List.of("Unknown type: " + type));
+                    return null;
+                }
+            }
+        } catch (JacksonException e) {
+            report.fail(number, List.of("Invalid data: " + e.getOriginalMessage()));
+            return null;
+        }
+    }
+
+    private void write(List<ImportLine> chunk, String email, Report report) {
+        List<ImportErrorDto> errors = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> save(chunk, email, errors));
+        } catch (RuntimeException e) {
+            log.error("Import chunk of lines {}..{} was not written: {}",
+                    chunk.getFirst().number(), chunk.getLast().number(), e.getMessage());
+            chunk.forEach(line -> report.fail(line.number(), List.of("Chunk was not written: " + e.getMessage())));
+            return;
+        }
+
+        long tasks = 0;
+        for (ImportLine line : chunk) {
+            if (line.task() != null) {
+                line.task().id = line.task().task.getId();
+                tasks++;
+            }
+        }
+        errors.forEach(error -> report.fail(error.line(), error.errors()));
+        report.written(tasks, chunk.size() - tasks - errors.size());
+        log.info("Imported lines up to {}", chunk.getLast().number());
+    }
+
+    private void save(List<ImportLine> chunk, String email, List<ImportErrorDto> errors) {
+        Set<Long> referencedIds = chunk.stream()
+                .map(ImportLine::taskId)
+                .filter(id -> id != null)
+                .collect(Collectors.toSet());
+        Set<Long> existingIds = referencedIds.isEmpty()
+                ? Set.of()
+                : Set.copyOf(taskRepository.findExistingIds(referencedIds));
+        Set<Task> chunkTasks = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        List<Task> tasks = new ArrayList<>();
+        List<Comments> comments = new ArrayList<>();
+        for (ImportLine line : chunk) {
+            if (line.task() != null) {
+                Task task = line.task().task;
+                task.setAuthorEmail(email);
+                chunkTasks.add(task);
+                tasks.add(task);
+                assigneeSuggestionService.recordUsage(task.getAssignedEmail(), 1);
+                continue;
+            }
+
+            Task parent = parentOf(line, chunkTasks, existingIds);
+            if (parent == null) {
+                errors.add(new ImportErrorDto(line.number(), List.of("Task of the comment was not imported")));
+                continue;
+            }
+            line.comment().setAuthorEmail(email);
+            line.comment().setTask(parent);
+            comments.add(line.comment());
+        }
+
+        taskRepository.saveAll(tasks);
+        commentsRepository.saveAll(comments);
+        Cache tasksCache = cacheManager.getCache(CacheConfig.TASKS);
+        comments.stream()
+                .collect(Collectors.groupingBy(comment -> comment.getTask().getId(), Collectors.counting()))
+                .forEach((taskId, count) -> {
+                    taskRepository.addCommentCount(taskId, count);
+                    if (tasksCache != null) {
+                        tasksCache.evict(taskId);
+                    }
+                });
+        assigneeSuggestionService.recordUsage(email, tasks.size());
+        List<TaskOutputDto> created = tasks.stream().map(taskMapper::map).toList();
+        taskStatisticsService.record(List.of(), created);
+        publishCreated(created, comments, chunkTasks);
+    }
+
+    /*
+     * Events are published inside the chunk's transaction, as createAll does, so that the outbox
+     * records them and feed subscribers get them once the chunk commits. Recipients of comments on
+     * tasks of earlier chunks or of the database are read in one query per chunk.
+     */
+    private void publishCreated(List<TaskOutputDto> tasks, List<Comments> comments, Set<Task> chunkTasks) {
+        tasks.forEach(task -> eventPublisher.publishEvent(ChangeEvent.ofTask(ChangeType.TASK_CREATED, task)));
+        if (comments.isEmpty()) {
+            return;
+        }
+
+        Set<Long> earlierTaskIds = comments.stream()
+                .map(Comments::getTask)
+                .filter(task -> !chunkTasks.contains(task))
+                .map(Task::getId)
+                .collect(Collectors.toSet());
+        Map<Long, TaskOutputDto> earlierTasks = earlierTaskIds.isEmpty()
+                ? Map.of()
+                : taskRepository.findOutputByIds(earlierTaskIds).stream()
+                        .collect(Collectors.toMap(TaskOutputDto::id, Function.identity()));
+        for (Comments comment : comments) {
+            Task task = comment.getTask();
+            String authorEmail;
+            String assignedEmail;
+            if (chunkTasks.contains(task)) {
+                authorEmail = task.getAuthorEmail();
+                assignedEmail = task.getAssignedEmail();
+            } else {
+                TaskOutputDto earlierTask = earlierTasks.get(task.getId());
+                if (earlierTask == null) {
+                    continue;
+                }
+                authorEmail = earlierTask.authorEmail();
+                assignedEmail = earlierTask.assignedEmail();
+            }
+            eventPublisher.publishEvent(ChangeEvent.ofComment(ChangeType.COMMENT_CREATED, task.getId(),
+                    commentMapper.map(comment), authorEmail, assignedEmail));
+        }
+    }
+
+    private Task parentOf(ImportLine line, Set<Task> chunkTasks, Set<Long> existingIds) {
+        if (line.parent() == null) {
+            return existingIds.contains(line.taskId()) ? taskRepository.getReferenceById(line.taskId()) : null;
+        }
+        if (line.parent().id != null) {
+            return taskRepository.getReferenceById(line.parent().id);
+        }
+        return chunkTasks.contains(line.parent().task) ? line.parent().task : null;
+    }
+
+    private static List<String> violations(Set<? extends ConstraintViolation<?>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .toList();
+    }
+
+    private static void handOver(BlockingQueue<List<ImportLine>> chunks, List<ImportLine> chunk, Thread writer) {
+        try {
+            while (!chunks.offer(chunk, 1, TimeUnit.SECONDS)) {
+                if (!writer.isAlive()) {
+                    throw new IllegalStateException("Import writer has stopped");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import was interrupted", e);
+        }
+    }
+
+    private static void join(Thread writer) {
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Task line of the import; {@code id} is set once its chunk has committed.
+     */
+    private static final class ImportedTask {
+        private static final ImportedTask REJECTED = new ImportedTask(null);
+
+        private final Task task;
+        private volatile Long id;
+
+        private ImportedTask(Task task) {
+            this.task = task;
+        }
+    }
+
+    private record ImportLine(long number, ImportedTask task, Comments comment, ImportedTask parent, Long taskId) {
+    }
+
+    private static final class Report {
+        private long tasks;
+        private long comments;
+        private long failed;
+        private final List<ImportErrorDto> errors = new ArrayList<>();
+
+        synchronized void fail(long line, List<String> lineErrors) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportErrorDto(line, lineErrors));
+            }
+        }
+
+        synchronized void written(long tasks, long comments) {
+            this.tasks += tasks;
+            this.comments += comments;
+        }
+
+        synchronized ImportResultDto result(long lines) {
+            List<ImportErrorDto> sorted = new ArrayList<>(errors);
+            sorted.sort(Comparator.comparingLong(ImportErrorDto::line));
+            return new ImportResultDto(lines, tasks, comments, failed, sorted);
+        }
+    }
+}
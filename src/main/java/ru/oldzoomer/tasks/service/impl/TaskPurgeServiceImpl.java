@@ -0,0 +1,77 @@
+package ru.oldzoomer.tasks.service.impl;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.oldzoomer.tasks.repo.CommentsRepository;
+import ru.oldzoomer.tasks.repo.TaskRepository;
+import ru.oldzoomer.tasks.service.TaskPurgeService;
+
+import java.util.List;
+
+/**
+ * Removes soft-deleted tasks and their comments with set-based statements in bounded batches.
+ * <p>
+ * A batch claims up to {@code batch-size} deleted tasks with {@code FOR UPDATE SKIP LOCKED}, so
+ * several instances purge disjoint tasks, deletes up to {@code batch-size} of their comments and,
+ * once none are left, the tasks themselves, all in one short transaction. A run does at most
+ * {@code batches-per-run} batches every {@code interval}, which caps the purge rate.
+ */
+@Service
+@Log4j2
+public class TaskPurgeServiceImpl implements TaskPurgeService {
+    private final TaskRepository taskRepository;
+    private final CommentsRepository commentsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int batchesPerRun;
+
+    public TaskPurgeServiceImpl(TaskRepository taskRepository,
+                                CommentsRepository commentsRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${tasks.purge.batch-size:500}") int batchSize,
+                                @Value("${tasks.purge.batches-per-run:10}") int batchesPerRun) {
+        this.taskRepository = taskRepository;
+        this.commentsRepository = commentsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.batchesPerRun = batchesPerRun;
+    }
+
+    /**
+     * Runs up to {@code batches-per-run} batches and returns the number of purged tasks.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${tasks.purge.interval:10s}")
+    public int purge() {
+        int purged = 0;
+        for (int batch = 0; batch < batchesPerRun; batch++) {
+            Integer tasks = transactionTemplate.execute(status -> purgeBatch());
+            if (tasks == null || tasks < 0) {
+                break;
+            }
+            purged += tasks;
+        }
+        if (purged > 0) {
+            log.info("Purged {} deleted tasks", purged);
+        }
+        return purged;
+    }
+
+    /*
+     * Returns the number of purged tasks, or -1 when no deleted task is left.
+     */
+    private int purgeBatch() {
+        List<Long> ids = taskRepository.lockDeletedIds(batchSize);
+        if (ids.isEmpty()) {
+            return -1;
+        }
+        if (commentsRepository.purgeByTaskIds(ids, batchSize) == batchSize) {
+            return 0;
+        }
+        return taskRepository.purgeByIds(ids);
+    }
+}
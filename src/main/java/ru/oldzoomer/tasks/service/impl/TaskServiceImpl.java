@@ -1,17 +1,60 @@
 package ru.oldzoomer.tasks.service.impl;
 
 import lombok.AllArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.oldzoomer.tasks.config.CacheConfig;
+import ru.oldzoomer.tasks.constant.ChangeType;
 import ru.oldzoomer.tasks.constant.TaskPriority;
+import ru.oldzoomer.tasks.constant.TaskScrollOrder;
+import ru.oldzoomer.tasks.constant.TaskSearchOrder;
 import ru.oldzoomer.tasks.constant.TaskStatus;
+import ru.oldzoomer.tasks.dto.input.Cursor;
+import ru.oldzoomer.tasks.dto.input.tasks.TaskSearchDto;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskOutputDto;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskSearchHitDto;
 import ru.oldzoomer.tasks.entity.Task;
+import ru.oldzoomer.tasks.event.ChangeEvent;
 import ru.oldzoomer.tasks.exception.ForbiddenChangesException;
+import ru.oldzoomer.tasks.exception.InvalidCursorException;
+import ru.oldzoomer.tasks.exception.InvalidSearchException;
+import ru.oldzoomer.tasks.exception.PreconditionFailedException;
 import ru.oldzoomer.tasks.exception.TaskNotFoundException;
+import ru.oldzoomer.tasks.mapper.TaskMapper;
+import ru.oldzoomer.tasks.repo.TaskArchiveRepository;
+import ru.oldzoomer.tasks.repo.TaskChange;
 import ru.oldzoomer.tasks.repo.TaskRepository;
+import ru.oldzoomer.tasks.repo.TaskSpecifications;
+import ru.oldzoomer.tasks.repo.TaskTextSearch;
+import ru.oldzoomer.tasks.repo.TaskUpdates;
+import ru.oldzoomer.tasks.service.AssigneeSuggestionService;
 import ru.oldzoomer.tasks.service.TaskService;
+import ru.oldzoomer.tasks.service.TaskStatisticsService;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
@@ -20,85 +63,333 @@ public class TaskServiceImpl implements TaskService {
     private static final String TASK_NOT_FOUND = "Task not found.";
 
     private final TaskRepository taskRepository;
+    private final TaskArchiveRepository taskArchiveRepository;
+    private final TaskTextSearch taskTextSearch;
+    private final TaskUpdates taskUpdates;
+    private final AssigneeSuggestionService assigneeSuggestionService;
+    private final TaskStatisticsService taskStatisticsService;
+    private final TaskMapper taskMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
 
     @Override
     @Transactional
     public Task create(Task task, String email, String assignedEmail) {
         task.setAuthorEmail(email);
         task.setAssignedEmail(assignedEmail);
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        TaskOutputDto created = taskMapper.map(saved);
+        assigneeSuggestionService.recordUsage(email, 1);
+        assigneeSuggestionService.recordUsage(assignedEmail, 1);
+        taskStatisticsService.record(List.of(), List.of(created));
+        eventPublisher.publishEvent(ChangeEvent.ofTask(ChangeType.TASK_CREATED, created));
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public List<Task> createAll(List<Task> tasks, String email) {
+        tasks.forEach(task -> task.setAuthorEmail(email));
+        List<Task> saved = taskRepository.saveAll(tasks);
+        List<TaskOutputDto> created = saved.stream().map(taskMapper::map).toList();
+        assigneeSuggestionService.recordUsage(email, saved.size());
+        saved.forEach(task -> assigneeSuggestionService.recordUsage(task.getAssignedEmail(), 1));
+        taskStatisticsService.record(List.of(), created);
+        created.forEach(task -> eventPublisher.publishEvent(ChangeEvent.ofTask(ChangeType.TASK_CREATED, task)));
+        return saved;
     }
 
+    /*
+     * Deletion only flags the task, in one guarded statement whatever the number of its comments; the
+     * rows are removed later, in bounded batches, by TaskPurgeService. Cached comments of the task are
+     * not looked up one by one: the comment cache is cleared after commit instead.
+     */
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TASKS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.COMMENTS, allEntries = true)
+    })
     public void delete(Long id, String email) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new TaskNotFoundException(TASK_NOT_FOUND));
-        if (!task.getAuthorEmail().equals(email)) {
-            throw new ForbiddenChangesException("Changes of data must do only his author!");
+        if (taskRepository.markDeleted(id, email) == 0) {
+            throw refusal(id, null, "Changes of data must do only his author!");
         }
-        taskRepository.delete(task);
+        TaskOutputDto deleted = taskRepository.findDeletedOutputById(id)
+                .orElseThrow(() -> new TaskNotFoundException(TASK_NOT_FOUND));
+        taskStatisticsService.record(List.of(deleted), List.of());
+        eventPublisher.publishEvent(ChangeEvent.ofTaskDeleted(id, deleted.authorEmail(), deleted.assignedEmail()));
     }
 
+    /*
+     * The single edits check ownership inside the UPDATE itself and build the response from a
+     * projection, so no entity is merged or dirty-checked. A refused update is told apart from a
+     * missing task or a stale version only on the error path. Edits of fields counted by the task
+     * statistics go through TaskUpdates, which also returns the state they move the task from.
+     */
     @Override
     @Transactional
-    public Task editStatus(Long id, TaskStatus status, String email) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new TaskNotFoundException(TASK_NOT_FOUND));
-        if (!task.getAuthorEmail().equals(email) && !email.equals(task.getAssignedEmail())) {
-            throw new ForbiddenChangesException("Changes of data must do only his author, or assigned user!");
-        }
-        task.setStatus(status);
-        return taskRepository.save(task);
+    @CacheEvict(cacheNames = CacheConfig.TASKS, key = "#id")
+    public TaskOutputDto editStatus(Long id, TaskStatus status, Set<Long> versions, String email) {
+        Long version = expectedVersion(id, versions);
+        TaskChange change = taskUpdates.updateStatus(id, status, finishedAt(status), version, email)
+                .orElseThrow(() -> refusal(id, version, "Changes of data must do only his author, or assigned user!"));
+        return recordChange(change);
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASKS, key = "#id")
+    public TaskOutputDto editPriority(Long id, TaskPriority priority, Set<Long> versions, String email) {
+        Long version = expectedVersion(id, versions);
+        TaskChange change = taskUpdates.updatePriority(id, priority, version, email)
+                .orElseThrow(() -> refusal(id, version, "Changes of data must do only his author!"));
+        return recordChange(change);
     }
 
     @Override
     @Transactional
-    public Task editPriority(Long id, TaskPriority priority, String email) {
-        Task task = taskRepository.findById(id)
+    @CacheEvict(cacheNames = CacheConfig.TASKS, key = "#id")
+    public TaskOutputDto editNameAndDescription(Long id, Task task, Set<Long> versions, String email) {
+        Long version = expectedVersion(id, versions);
+        if (taskRepository.updateNameAndDescription(id, task.getName(), task.getDescription(), version, email) == 0) {
+            throw refusal(id, version, "Changes of data must do only his author!");
+        }
+        TaskOutputDto updated = taskRepository.findOutputById(id)
                 .orElseThrow(() -> new TaskNotFoundException(TASK_NOT_FOUND));
-        if (!task.getAuthorEmail().equals(email)) {
-            throw new ForbiddenChangesException("Changes of data must do only his author!");
+        eventPublisher.publishEvent(ChangeEvent.ofTaskUpdated(null, updated));
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASKS, key = "#id")
+    public TaskOutputDto editAssignedUser(Long id, String assignedEmail, Set<Long> versions, String email) {
+        Long version = expectedVersion(id, versions);
+        TaskChange change = taskUpdates.updateAssignedEmail(id, assignedEmail, version, email)
+                .orElseThrow(() -> refusal(id, version, "Changes of data must do only his author!"));
+        assigneeSuggestionService.recordUsage(assignedEmail, 1);
+        return recordChange(change);
+    }
+
+    /*
+     * The bulk edits lock the editable subset of IDs with one select, which checks the ownership on the
+     * locked rows, and apply the change with one guarded update, so the cost does not depend on the
+     * number of tasks. The locked rows are exactly the updated ones; they are read up front because
+     * UPDATE ... RETURNING is not available on every supported database.
+     */
+    @Override
+    @Transactional
+    public Set<Long> editStatusOfAll(Set<Long> ids, TaskStatus status, String email) {
+        List<TaskOutputDto> before = map(taskRepository.findAllEditableByAuthorOrAssignedForUpdate(ids, email));
+        Set<Long> editable = idsOf(before);
+        if (!editable.isEmpty()) {
+            taskRepository.updateStatusByIds(editable, status, finishedAt(status), email);
+            evictAll(CacheConfig.TASKS, editable);
+            taskStatisticsService.record(before, publishUpdated(editable));
         }
-        task.setPriority(priority);
-        return taskRepository.save(task);
+        return editable;
     }
 
     @Override
     @Transactional
-    public Task editNameAndDescription(Long id, Task task, String email) {
-        Task existing = taskRepository.findById(id)
-                .orElseThrow(() -> new TaskNotFoundException(TASK_NOT_FOUND));
-        if (!existing.getAuthorEmail().equals(email)) {
-            throw new ForbiddenChangesException("Changes of data must do only his author!");
+    public Set<Long> editPriorityOfAll(Set<Long> ids, TaskPriority priority, String email) {
+        List<TaskOutputDto> before = map(taskRepository.findAllEditableByAuthorForUpdate(ids, email));
+        Set<Long> editable = idsOf(before);
+        if (!editable.isEmpty()) {
+            taskRepository.updatePriorityByIds(editable, priority, email);
+            evictAll(CacheConfig.TASKS, editable);
+            taskStatisticsService.record(before, publishUpdated(editable));
         }
-        existing.setName(task.getName());
-        existing.setDescription(task.getDescription());
-        return taskRepository.save(existing);
+        return editable;
     }
 
     @Override
     @Transactional
-    public Task editAssignedUser(Long id, String assignedEmail, String email) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new TaskNotFoundException(TASK_NOT_FOUND));
-        if (!task.getAuthorEmail().equals(email)) {
-            throw new ForbiddenChangesException("Changes of data must do only his author!");
+    public Set<Long> editAssignedUserOfAll(Set<Long> ids, String assignedEmail, String email) {
+        List<TaskOutputDto> before = map(taskRepository.findAllEditableByAuthorForUpdate(ids, email));
+        Set<Long> editable = idsOf(before);
+        if (!editable.isEmpty()) {
+            taskRepository.updateAssignedEmailByIds(editable, assignedEmail, email);
+            assigneeSuggestionService.recordUsage(assignedEmail, editable.size());
+            evictAll(CacheConfig.TASKS, editable);
+            taskStatisticsService.record(before, publishUpdated(editable, before));
         }
-        task.setAssignedEmail(assignedEmail);
-        return taskRepository.save(task);
+        return editable;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Task getTask(Long id) {
-        return taskRepository.findById(id)
+    @Cacheable(cacheNames = CacheConfig.TASKS, key = "#id", sync = true)
+    public TaskOutputDto getTask(Long id) {
+        return taskRepository.findOutputById(id)
+                .or(() -> taskArchiveRepository.findOutputById(id))
                 .orElseThrow(() -> new TaskNotFoundException(TASK_NOT_FOUND));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<Task> getMultipleTasksForUser(String email, Pageable pageable) {
-        return taskRepository.findAllByAuthorEmail(email, pageable);
+    public Page<TaskOutputDto> getMultipleTasksForUser(String email, Pageable pageable) {
+        return taskRepository.findOutputByAuthorEmail(email, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<TaskOutputDto> scrollTasksForUser(String email, Cursor after, TaskScrollOrder order, int size) {
+        Pageable limit = PageRequest.ofSize(size);
+        if (order == TaskScrollOrder.ID) {
+            return taskRepository.findOutputByAuthorEmailAfterId(email, after.id(), limit);
+        }
+
+        TaskPriority priority = priorityOf(after);
+        return taskRepository.findOutputByAuthorEmailAfterPriorityKey(email, priority, after.id(),
+                prioritiesAfter(priority), limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<TaskOutputDto> scrollInbox(String email, Set<TaskStatus> statuses, Cursor after, int size) {
+        Set<TaskStatus> filter = statuses.isEmpty() ? EnumSet.allOf(TaskStatus.class) : statuses;
+        TaskPriority priority = priorityOf(after);
+        return taskRepository.findOutputByAssignedEmailAfterPriorityKey(email, filter, priority, after.id(),
+                prioritiesAfter(priority), PageRequest.ofSize(size));
+    }
+
+    /*
+     * The search is anchored on an equality over the author or the assigned user, so every query
+     * reads one index range. Orders are limited to those the anchor's index delivers without a
+     * full sort: the author indexes cover id and (priority, id), the assignee index only (priority, id).
+     * Statuses, priorities and the name prefix are checked on the rows read in that order.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<TaskOutputDto> searchTasks(TaskSearchDto filter, Cursor after, TaskSearchOrder order, int size) {
+        Specification<Task> specification;
+        if (filter.authorEmail() != null) {
+            specification = TaskSpecifications.authorEmailIs(filter.authorEmail());
+            if (filter.assignedEmail() != null) {
+                specification = specification.and(TaskSpecifications.assignedEmailIs(filter.assignedEmail()));
+            }
+        } else if (filter.assignedEmail() != null) {
+            if (!order.byPriority()) {
+                throw new InvalidSearchException("Tasks of the assigned user can be sorted only by priority!");
+            }
+            specification = TaskSpecifications.assignedEmailIs(filter.assignedEmail());
+        } else {
+            throw new InvalidSearchException("Author or assigned user must be given!");
+        }
+
+        if (filter.statuses() != null && !filter.statuses().isEmpty()) {
+            specification = specification.and(TaskSpecifications.statusIn(filter.statuses()));
+        }
+        if (filter.priorities() != null && !filter.priorities().isEmpty()) {
+            specification = specification.and(TaskSpecifications.priorityIn(filter.priorities()));
+        }
+        if (filter.namePrefix() != null && !filter.namePrefix().isEmpty()) {
+            specification = specification.and(TaskSpecifications.nameStartsWith(filter.namePrefix()));
+        }
+        if (!after.equals(Cursor.FIRST)) {
+            if (order.byPriority() != (after.priority() != null)) {
+                throw new InvalidCursorException("Cursor does not match the requested order!");
+            }
+            specification = specification.and(TaskSpecifications.after(after, order));
+        }
+
+        Sort.Direction direction = order.descending() ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = order.byPriority() ? Sort.by(direction, "priority", "id") : Sort.by(direction, "id");
+        return taskRepository.findOutputBy(specification, sort, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<TaskSearchHitDto> searchText(String query, Pageable pageable) {
+        List<TaskSearchHitDto> hits = taskTextSearch.search(query, (int) pageable.getOffset(),
+                pageable.getPageSize() + 1);
+        boolean hasNext = hits.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? hits.subList(0, pageable.getPageSize()) : hits, pageable, hasNext);
+    }
+
+    private static Instant finishedAt(TaskStatus status) {
+        return status == TaskStatus.FINISHED ? Instant.now() : null;
+    }
+
+    private static TaskPriority priorityOf(Cursor after) {
+        if (after.priority() == null && !after.equals(Cursor.FIRST)) {
+            throw new InvalidCursorException("Cursor does not match the requested order!");
+        }
+        return after.priority() != null ? after.priority() : TaskPriority.values()[0];
+    }
+
+    private static List<TaskPriority> prioritiesAfter(TaskPriority priority) {
+        TaskPriority[] priorities = TaskPriority.values();
+        return Arrays.asList(priorities).subList(priority.ordinal() + 1, priorities.length);
+    }
+
+    /*
+     * Events of edits that may reassign tasks carry the previous states, so that the previously
+     * assigned users are told that the tasks have been taken from them.
+     */
+    private TaskOutputDto recordChange(TaskChange change) {
+        eventPublisher.publishEvent(ChangeEvent.ofTaskUpdated(change.before(), change.after()));
+        taskStatisticsService.record(List.of(change.before()), List.of(change.after()));
+        return change.after();
+    }
+
+    private List<TaskOutputDto> publishUpdated(Collection<Long> ids) {
+        return publishUpdated(ids, List.of());
+    }
+
+    private List<TaskOutputDto> publishUpdated(Collection<Long> ids, List<TaskOutputDto> before) {
+        Map<Long, TaskOutputDto> previous = byId(before);
+        List<TaskOutputDto> updated = taskRepository.findOutputByIds(ids);
+        updated.forEach(task -> eventPublisher.publishEvent(ChangeEvent.ofTaskUpdated(previous.get(task.id()), task)));
+        return updated;
+    }
+
+    private static Map<Long, TaskOutputDto> byId(List<TaskOutputDto> tasks) {
+        return tasks.stream().collect(Collectors.toMap(TaskOutputDto::id, Function.identity()));
+    }
+
+    private List<TaskOutputDto> map(List<Task> tasks) {
+        return tasks.stream().map(taskMapper::map).toList();
+    }
+
+    private static Set<Long> idsOf(List<TaskOutputDto> tasks) {
+        return tasks.stream().map(TaskOutputDto::id).collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /*
+     * A guarded update checks one version; of an If-Match list, the current version is taken when it
+     * is listed, any other listed one fails the update as it should.
+     */
+    private Long expectedVersion(Long id, Set<Long> versions) {
+        if (versions == null) {
+            return null;
+        }
+        Long listed = versions.iterator().next();
+        if (versions.size() == 1) {
+            return listed;
+        }
+        return taskRepository.findVersionById(id).filter(versions::contains).orElse(listed);
+    }
+
+    private RuntimeException refusal(Long id, Long version, String forbiddenMessage) {
+        Optional<Long> currentVersion = taskRepository.findVersionById(id);
+        if (currentVersion.isEmpty()) {
+            return new TaskNotFoundException(TASK_NOT_FOUND);
+        }
+        if (version != null && !version.equals(currentVersion.get())) {
+            return new PreconditionFailedException("Task was changed since the given version!");
+        }
+        return new ForbiddenChangesException(forbiddenMessage);
+    }
+
+    /*
+     * Evictions through the transaction-aware cache manager take effect after commit.
+     */
+    private void evictAll(String cacheName, Collection<Long> ids) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            ids.forEach(cache::evict);
+        }
     }
 }
@@ -0,0 +1,144 @@
+package ru.oldzoomer.tasks.service.impl;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.oldzoomer.tasks.constant.TaskPriority;
+import ru.oldzoomer.tasks.constant.TaskRole;
+import ru.oldzoomer.tasks.constant.TaskStatus;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskOutputDto;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskStatisticsDto;
+import ru.oldzoomer.tasks.repo.TaskStatisticsRepository;
+import ru.oldzoomer.tasks.repo.TaskStatsKey;
+import ru.oldzoomer.tasks.service.TaskStatisticsService;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps per-user task counters in step with the tasks: the task services report every change in
+ * their own transaction, so a counter commits or rolls back with the change it counts. Each
+ * transaction adds to one randomly chosen stripe of a counter, so concurrent changes of the tasks
+ * of one user rarely wait on the same row. Reading the statistics of a user sums a bounded number
+ * of rows, whatever the number of tasks.
+ * <p>
+ * Writes that bypass the services leave the counters off; {@link #reconcile()} repairs them, on one
+ * instance at a time.
+ */
+@Service
+@Log4j2
+public class TaskStatisticsServiceImpl implements TaskStatisticsService {
+    private final TaskStatisticsRepository taskStatisticsRepository;
+    private final TransactionTemplate lockTemplate;
+    private final TransactionTemplate snapshotTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int stripes;
+
+    public TaskStatisticsServiceImpl(TaskStatisticsRepository taskStatisticsRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${tasks.stats.stripes:8}") int stripes) {
+        this.taskStatisticsRepository = taskStatisticsRepository;
+        this.lockTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTemplate.setReadOnly(true);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.stripes = stripes;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskStatisticsDto getStatistics(String email) {
+        Map<TaskStatus, Map<TaskPriority, Long>> authored = emptyCounts();
+        Map<TaskStatus, Map<TaskPriority, Long>> assigned = emptyCounts();
+        taskStatisticsRepository.sumByEmail(email).forEach((key, count) ->
+                (key.role() == TaskRole.AUTHOR ? authored : assigned).get(key.status()).put(key.priority(), count));
+        return new TaskStatisticsDto(authored, assigned);
+    }
+
+    /**
+     * Moves the given states of tasks out of and into the counters, in the transaction of the change.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Collection<TaskOutputDto> removed, Collection<TaskOutputDto> added) {
+        Map<TaskStatsKey, Long> deltas = new TreeMap<>(TaskStatsKey.ORDER);
+        removed.forEach(task -> count(deltas, task, -1));
+        added.forEach(task -> count(deltas, task, 1));
+
+        int stripe = ThreadLocalRandom.current().nextInt(stripes);
+        deltas.forEach((key, delta) -> {
+            if (delta != 0) {
+                taskStatisticsRepository.add(key, stripe, delta);
+            }
+        });
+    }
+
+    /**
+     * Compares the counters with the tasks on one snapshot and adds the difference. The difference
+     * is applied in a later transaction; changes committed in between move both sides alike. Both
+     * run while an outer transaction holds the lock row of the reconciliation, so that instances
+     * which poll at the same time do not add the same difference twice; they skip the run instead.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${tasks.stats.reconcile-interval:1h}",
+            initialDelayString = "${tasks.stats.reconcile-interval:1h}")
+    public void reconcile() {
+        lockTemplate.executeWithoutResult(status -> {
+            if (!taskStatisticsRepository.tryLockReconciliation()) {
+                log.info("Task statistics are being reconciled by another instance");
+                return;
+            }
+            repair();
+        });
+    }
+
+    private void repair() {
+        Map<TaskStatsKey, Long> drift = snapshotTemplate.execute(status -> {
+            Map<TaskStatsKey, Long> difference = new TreeMap<>(TaskStatsKey.ORDER);
+            difference.putAll(taskStatisticsRepository.countTasks());
+            taskStatisticsRepository.sumAll().forEach((key, counted) -> difference.merge(key, -counted, Long::sum));
+            difference.values().removeIf(delta -> delta == 0);
+            return difference;
+        });
+        if (drift == null || drift.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status ->
+                drift.forEach((key, delta) -> taskStatisticsRepository.add(key, 0, delta)));
+        log.warn("Repaired {} task statistics counters", drift.size());
+    }
+
+    private static void count(Map<TaskStatsKey, Long> deltas, TaskOutputDto task, long delta) {
+        deltas.merge(new TaskStatsKey(task.authorEmail(), TaskRole.AUTHOR, task.status(), task.priority()),
+                delta, Long::sum);
+        if (task.assignedEmail() != null) {
+            deltas.merge(new TaskStatsKey(task.assignedEmail(), TaskRole.ASSIGNEE, task.status(), task.priority()),
+                    delta, Long::sum);
+        }
+    }
+
+    private static Map<TaskStatus, Map<TaskPriority, Long>> emptyCounts() {
+        Map<TaskStatus, Map<TaskPriority, Long>> counts = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            Map<TaskPriority, Long> byPriority = new EnumMap<>(TaskPriority.class);
+            for (TaskPriority priority : TaskPriority.values()) {
+                byPriority.put(priority, 0L);
+            }
+            counts.put(status, byPriority);
+        }
+        return counts;
+    }
+}
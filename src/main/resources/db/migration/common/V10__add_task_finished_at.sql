@@ -0,0 +1,8 @@
+-- Time a task became FINISHED, the age TaskArchiveService archives by. Tasks finished before
+-- this migration count as finished now.
+
+alter table tasks add column if not exists finished_at timestamp(6) with time zone;
+
+update tasks
+set finished_at = current_timestamp
+where status = 2 and finished_at is null;
@@ -0,0 +1,9 @@
+-- The inbox lists several statuses at once, all of them when no filter is given, which the
+-- (assigned_email, status, priority, id) index serves only by sorting every assigned task.
+-- (assigned_email, priority, id) delivers the keyset order whatever the status filter; the status
+-- is checked on the rows read in that order.
+
+create index if not exists idx_tasks_assigned_email_priority_id
+    on tasks (assigned_email, priority, id);
+
+drop index if exists idx_tasks_assigned_email_status_priority_id;
@@ -0,0 +1,17 @@
+-- A message the sink keeps refusing is retried with a growing delay instead of blocking the
+-- outbox, and moved to outbox_dead_letter once it has used up tasks.outbox.max-attempts.
+
+alter table outbox add column if not exists attempts integer not null default 0;
+alter table outbox add column if not exists next_attempt_at timestamp(6) with time zone;
+
+create table if not exists outbox_dead_letter
+(
+    id         bigint                      not null primary key,
+    type       varchar(32)                 not null,
+    task_id    bigint                      not null,
+    payload    varchar(4000)               not null,
+    created_at timestamp(6) with time zone not null,
+    attempts   integer                     not null,
+    last_error varchar(1000),
+    failed_at  timestamp(6) with time zone not null
+);
@@ -0,0 +1,11 @@
+-- One row per scheduled job that must run on a single instance at a time. A run locks its row with
+-- FOR UPDATE SKIP LOCKED; instances that find it locked skip the run.
+
+create table if not exists job_locks
+(
+    name varchar(64) not null primary key
+);
+
+insert into job_locks (name)
+select 'task-stats-reconcile'
+where not exists (select 1 from job_locks where name = 'task-stats-reconcile');
@@ -0,0 +1,38 @@
+-- Baseline of the schema previously created by ddl-auto: update.
+-- Every statement is guarded, so the migration also adopts databases created that way.
+
+create sequence if not exists tasks_seq start with 1 increment by 50;
+create sequence if not exists comments_seq start with 1 increment by 50;
+
+create table if not exists tasks
+(
+    id             bigint       not null primary key,
+    name           varchar(100) not null,
+    description    varchar(300) not null,
+    status         smallint     not null,
+    priority       smallint     not null,
+    author_email   varchar(255) not null,
+    assigned_email varchar(255),
+    version        bigint       not null default 0
+);
+
+create table if not exists comments
+(
+    id           bigint       not null primary key,
+    author_email varchar(255) not null,
+    task_id      bigint references tasks (id),
+    text         varchar(300) not null,
+    version      bigint       not null default 0
+);
+
+alter table tasks add column if not exists version bigint not null default 0;
+alter table comments add column if not exists version bigint not null default 0;
+
+-- Keyset and paged lists of TaskRepository: by author ordered by id or by (priority, id).
+create index if not exists idx_tasks_author_email_id on tasks (author_email, id);
+create index if not exists idx_tasks_author_email_priority_id on tasks (author_email, priority, id);
+create index if not exists idx_tasks_assigned_email_id on tasks (assigned_email, id);
+
+-- Lists of CommentsRepository: by task and by author, both ordered by id.
+create index if not exists idx_comments_task_id_id on comments (task_id, id);
+create index if not exists idx_comments_author_email_id on comments (author_email, id);
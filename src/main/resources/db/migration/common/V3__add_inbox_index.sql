@@ -0,0 +1,7 @@
+-- Inbox of the assigned user: filtered by status, ordered by (priority, id).
+-- Supersedes the (assigned_email, id) index, nothing lists assigned tasks by id alone.
+
+create index if not exists idx_tasks_assigned_email_status_priority_id
+    on tasks (assigned_email, status, priority, id);
+
+drop index if exists idx_tasks_assigned_email_id;
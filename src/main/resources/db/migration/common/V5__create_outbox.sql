@@ -0,0 +1,12 @@
+-- Change records written in the transaction of the change and drained by OutboxDispatcher.
+
+create sequence if not exists outbox_seq start with 1 increment by 50;
+
+create table if not exists outbox
+(
+    id         bigint                      not null primary key,
+    type       varchar(32)                 not null,
+    task_id    bigint                      not null,
+    payload    varchar(4000)               not null,
+    created_at timestamp(6) with time zone not null
+);
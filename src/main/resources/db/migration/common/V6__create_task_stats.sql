@@ -0,0 +1,24 @@
+-- Per-user task counters maintained by TaskStatisticsService, split into stripes to spread updates.
+-- role, status and priority are ordinals of TaskRole, TaskStatus and TaskPriority.
+
+create table if not exists task_stats
+(
+    email      varchar(255) not null,
+    role       smallint     not null,
+    status     smallint     not null,
+    priority   smallint     not null,
+    stripe     smallint     not null,
+    task_count bigint       not null,
+    primary key (email, role, status, priority, stripe)
+);
+
+insert into task_stats (email, role, status, priority, stripe, task_count)
+select author_email, 0, status, priority, 0, count(*)
+from tasks
+group by author_email, status, priority;
+
+insert into task_stats (email, role, status, priority, stripe, task_count)
+select assigned_email, 1, status, priority, 0, count(*)
+from tasks
+where assigned_email is not null
+group by assigned_email, status, priority;
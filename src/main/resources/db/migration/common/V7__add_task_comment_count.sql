@@ -0,0 +1,6 @@
+-- Denormalized number of comments of a task, maintained by CommentsServiceImpl.
+
+alter table tasks add column if not exists comment_count bigint not null default 0;
+
+update tasks t
+set comment_count = (select count(*) from comments c where c.task_id = t.id);
@@ -0,0 +1,3 @@
+-- Soft-delete flag of tasks; flagged rows are removed in batches by TaskPurgeService.
+
+alter table tasks add column if not exists deleted boolean not null default false;
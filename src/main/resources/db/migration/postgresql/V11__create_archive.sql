@@ -0,0 +1,34 @@
+-- Cold store of finished tasks and their comments, filled by TaskArchiveService and partitioned by
+-- the month the task was finished. The archiver creates a month's partitions before moving its
+-- first rows, so there is no default partition.
+
+create table if not exists tasks_archive
+(
+    id             bigint                      not null,
+    name           varchar(100)                not null,
+    description    varchar(300)                not null,
+    status         smallint                    not null,
+    priority       smallint                    not null,
+    author_email   varchar(255)                not null,
+    assigned_email varchar(255),
+    version        bigint                      not null,
+    comment_count  bigint                      not null,
+    finished_at    timestamp(6) with time zone not null,
+    archived_at    timestamp(6) with time zone not null,
+    primary key (id, finished_at)
+) partition by range (finished_at);
+
+create table if not exists comments_archive
+(
+    id           bigint                      not null,
+    task_id      bigint                      not null,
+    author_email varchar(255)                not null,
+    text         varchar(300)                not null,
+    version      bigint                      not null,
+    finished_at  timestamp(6) with time zone not null,
+    primary key (id, finished_at)
+) partition by range (finished_at);
+
+-- Fallback of getTask by ID, and the statistics reconciliation.
+create index if not exists idx_tasks_archive_id on tasks_archive (id);
+create index if not exists idx_comments_archive_task_id_id on comments_archive (task_id, id);
@@ -0,0 +1,5 @@
+-- Rows inserted before the switch to pooled sequences got their IDs from identity columns.
+-- Move the sequences past them, leaving room for one full pooled allocation.
+
+select setval('tasks_seq', (select coalesce(max(id), 0) from tasks) + 50);
+select setval('comments_seq', (select coalesce(max(id), 0) from comments) + 50);
@@ -0,0 +1,14 @@
+-- Full-text search vectors, kept current by PostgreSQL on every insert and update.
+-- The 'simple' configuration doesn't stem, so it treats all languages of the texts alike.
+
+alter table tasks
+    add column if not exists search_vector tsvector
+        generated always as (setweight(to_tsvector('simple', name), 'A')
+            || setweight(to_tsvector('simple', description), 'B')) stored;
+
+alter table comments
+    add column if not exists search_vector tsvector
+        generated always as (to_tsvector('simple', text)) stored;
+
+create index if not exists idx_tasks_search_vector on tasks using gin (search_vector);
+create index if not exists idx_comments_search_vector on comments using gin (search_vector);
@@ -0,0 +1,3 @@
+-- Lets TaskPurgeService find the flagged tasks without scanning the table.
+
+create index if not exists idx_tasks_deleted_id on tasks (id) where deleted;
@@ -0,0 +1,93 @@
+package ru.oldzoomer.tasks.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.oldzoomer.tasks.constant.TaskPriority;
+import ru.oldzoomer.tasks.constant.TaskStatus;
+import ru.oldzoomer.tasks.entity.Task;
+import ru.oldzoomer.tasks.repo.TaskRepository;
+import ru.oldzoomer.tasks.service.TaskService;
+
+import java.io.UnsupportedEncodingException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ChangeFeedControllerIntegrationTest {
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\d+)");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll();
+    }
+
+    @Test
+    @WithMockUser(username = "feed.assigned@email.com")
+    void subscribe_shouldPushCommittedChangesAndReplayAfterLastEventId() throws Exception {
+        MvcResult live = mockMvc.perform(get("/api/1.0/feed"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        Task created = taskService.create(createTask("First Task"), "feed.author@email.com", "feed.assigned@email.com");
+        taskService.create(createTask("Foreign Task"), "feed.author@email.com", "other@email.com");
+        String liveContent = awaitContent(live, "event:TASK_CREATED");
+        assertTrue(liveContent.contains("\"id\":" + created.getId()));
+        assertFalse(liveContent.contains("Foreign Task"));
+
+        Matcher firstId = EVENT_ID.matcher(liveContent);
+        assertTrue(firstId.find());
+        taskService.editStatus(created.getId(), TaskStatus.PROCESSING, null, "feed.assigned@email.com");
+
+        MvcResult resumed = mockMvc.perform(get("/api/1.0/feed")
+                        .header("Last-Event-ID", firstId.group(1)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String resumedContent = awaitContent(resumed, "event:TASK_UPDATED");
+        assertTrue(resumedContent.contains("\"status\":\"PROCESSING\""));
+        assertFalse(resumedContent.contains("event:TASK_CREATED"));
+    }
+
+    private static String awaitContent(MvcResult result, String expected)
+            throws UnsupportedEncodingException, InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            String content = result.getResponse().getContentAsString();
+            if (content.contains(expected)) {
+                return content;
+            }
+            Thread.sleep(50);
+        }
+        return result.getResponse().getContentAsString();
+    }
+
+    private static Task createTask(String name) {
+        Task task = new Task();
+        task.setName(name);
+        task.setDescription("Description");
+        task.setStatus(TaskStatus.PENDING);
+        task.setPriority(TaskPriority.LOW);
+        return task;
+    }
+}
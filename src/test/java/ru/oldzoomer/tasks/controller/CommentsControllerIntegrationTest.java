@@ -1,5 +1,6 @@
 package ru.oldzoomer.tasks.controller;
 
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +10,7 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.oldzoomer.tasks.constant.TaskPriority;
 import ru.oldzoomer.tasks.constant.TaskStatus;
 import ru.oldzoomer.tasks.dto.input.comments.CreateCommentDto;
@@ -122,6 +124,60 @@ class CommentsControllerIntegrationTest {
         assertEquals("Updated comment", updatedComment.getText());
     }
 
+    @Test
+    @WithMockUser(username = "author@email.com")
+    void scrollCommentsForTask_shouldReturnNextSliceByCursor() throws Exception {
+        Task task = createTask();
+        Comments first = createComment("First comment", task);
+        Comments second = createComment("Second comment", task);
+
+        MvcResult firstSlice = mockMvc.perform(get("/api/1.0/comments/scroll/task")
+                        .param("size", "1")
+                        .param("taskId", task.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0].id").value(first.getId()))
+                .andReturn();
+
+        String nextCursor = JsonPath.read(firstSlice.getResponse().getContentAsString(), "$.data.nextCursor");
+        mockMvc.perform(get("/api/1.0/comments/scroll/task")
+                        .param("size", "1")
+                        .param("taskId", task.getId().toString())
+                        .param("after", nextCursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0].id").value(second.getId()))
+                .andExpect(jsonPath("$.data.nextCursor").isEmpty());
+    }
+
+    @Test
+    @WithMockUser(username = "author@email.com")
+    void createAndDeleteComment_shouldMaintainCommentCountOfTask() throws Exception {
+        Task task = createTask();
+        mockMvc.perform(get("/api/1.0/tasks/get/" + task.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.commentCount").value(0));
+
+        MvcResult created = mockMvc.perform(post("/api/1.0/comments/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateCommentDto(task.getId(), "Test comment"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        mockMvc.perform(post("/api/1.0/comments/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateCommentDto(task.getId(), "Other comment"))))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/1.0/tasks/get/" + task.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.commentCount").value(2));
+
+        Number commentId = JsonPath.read(created.getResponse().getContentAsString(), "$.data.id");
+        mockMvc.perform(delete("/api/1.0/comments/" + commentId + "/delete"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/1.0/tasks/get/" + task.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.commentCount").value(1));
+        assertEquals(1L, taskRepository.findById(task.getId()).orElseThrow().getCommentCount());
+    }
+
     private Task createTask() {
         Task task = new Task();
         task.setName("Test Task");
@@ -1,26 +1,52 @@
 package ru.oldzoomer.tasks.controller;
 
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.oldzoomer.tasks.constant.TaskPriority;
 import ru.oldzoomer.tasks.constant.TaskStatus;
+import ru.oldzoomer.tasks.dto.input.comments.CreateCommentDto;
+import ru.oldzoomer.tasks.dto.input.tasks.BatchEditTaskStatusDto;
 import ru.oldzoomer.tasks.dto.input.tasks.CreateTaskDto;
 import ru.oldzoomer.tasks.dto.input.tasks.EditTaskDto;
+import ru.oldzoomer.tasks.dto.input.tasks.EditTaskPriorityDto;
+import ru.oldzoomer.tasks.dto.input.tasks.EditTaskStatusDto;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskStatisticsDto;
+import ru.oldzoomer.tasks.entity.Comments;
 import ru.oldzoomer.tasks.entity.Task;
+import ru.oldzoomer.tasks.repo.CommentsRepository;
 import ru.oldzoomer.tasks.repo.TaskRepository;
+import ru.oldzoomer.tasks.repo.TaskStatisticsRepository;
+import ru.oldzoomer.tasks.service.TaskArchiveService;
+import ru.oldzoomer.tasks.service.TaskPurgeService;
+import ru.oldzoomer.tasks.service.TaskStatisticsService;
 import tools.jackson.databind.ObjectMapper;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -37,6 +63,24 @@ class TaskControllerIntegrationTest {
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private CommentsRepository commentsRepository;
+
+    @Autowired
+    private TaskStatisticsService taskStatisticsService;
+
+    @Autowired
+    private TaskStatisticsRepository taskStatisticsRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TaskPurgeService taskPurgeService;
+
+    @Autowired
+    private TaskArchiveService taskArchiveService;
+
     @AfterEach
     void tearDown() {
         taskRepository.deleteAll();
@@ -59,6 +103,29 @@ class TaskControllerIntegrationTest {
         assertEquals(TaskStatus.FINISHED, task.getStatus());
     }
 
+    @Test
+    @WithMockUser(username = "author@email.com")
+    void createTasks_shouldCreateValidTasksAndReportInvalidOnes() throws Exception {
+        List<CreateTaskDto> createTaskDtos = List.of(
+                createCreateTaskDto(),
+                new CreateTaskDto("", "Test Description", TaskStatus.PENDING, TaskPriority.LOW, "assigned@email.com"),
+                new CreateTaskDto("Second Task", "Test Description", TaskStatus.PENDING, TaskPriority.HIGH, "assigned@email.com"));
+
+        mockMvc.perform(post("/api/1.0/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createTaskDtos)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.data[0].success").value(true))
+                .andExpect(jsonPath("$.data[0].task.name").value("Test Task"))
+                .andExpect(jsonPath("$.data[1].success").value(false))
+                .andExpect(jsonPath("$.data[1].errors[0]").value("name: Name should not be empty"))
+                .andExpect(jsonPath("$.data[2].success").value(true))
+                .andExpect(jsonPath("$.data[2].task.authorEmail").value("author@email.com"));
+
+        assertEquals(2, taskRepository.count());
+    }
+
     @Test
     @WithMockUser(username = "author@email.com")
     void getTask_shouldReturnTask() throws Exception {
@@ -70,6 +137,98 @@ class TaskControllerIntegrationTest {
                 .andExpect(jsonPath("$.data.description").value("Test Description"));
     }
 
+    @Test
+    @WithMockUser(username = "author@email.com")
+    void getTask_shouldReturnNotModifiedForCurrentETag() throws Exception {
+        Task task = createTask("Test Task", "Test Description");
+        String eTag = mockMvc.perform(get("/api/1.0/tasks/get/" + task.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        mockMvc.perform(get("/api/1.0/tasks/get/" + task.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @WithMockUser(username = "author@email.com")
+    void updateTask_shouldRejectStaleIfMatch() throws Exception {
+        Task task = createTask("Original Task", "Original Description");
+        String staleETag = "\"" + task.getVersion() + "\"";
+
+        mockMvc.perform(put("/api/1.0/tasks/" + task.getId() + "/edit/description")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, staleETag)
+                        .content(objectMapper.writeValueAsString(createEditTaskDto())))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/api/1.0/tasks/" + task.getId() + "/edit/description")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, staleETag)
+                        .content(objectMapper.writeValueAsString(new EditTaskDto("Lost Update", "Lost Update"))))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals("Updated Task", taskRepository.findById(task.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    @WithMockUser(username = "author@email.com")
+    void updateTask_shouldMatchAnyStrongTagOfIfMatchList() throws Exception {
+        Task task = createTask("Original Task", "Original Description");
+        String current = "\"" + task.getVersion() + "\"";
+
+        mockMvc.perform(put("/api/1.0/tasks/" + task.getId() + "/edit/description")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, "W/" + current)
+                        .content(objectMapper.writeValueAsString(createEditTaskDto())))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/1.0/tasks/" + task.getId() + "/edit/description")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, "W/" + current + ", \"999\", " + current)
+                        .content(objectMapper.writeValueAsString(createEditTaskDto())))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser(username = "author@email.com")
+    void createComment_shouldChangeETagButKeepIfMatch() throws Exception {
+        Task task = createTask("Original Task", "Original Description");
+        String eTag = mockMvc.perform(get("/api/1.0/tasks/get/" + task.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        mockMvc.perform(post("/api/1.0/comments/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateCommentDto(task.getId(), "Test comment"))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/1.0/tasks/get/" + task.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.commentCount").value(1));
+        mockMvc.perform(put("/api/1.0/tasks/" + task.getId() + "/edit/description")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .content(objectMapper.writeValueAsString(createEditTaskDto())))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser(username = "author@email.com")
+    void getAllTasksForUser_shouldReturnTasks() throws Exception {
+        Task task = createTask("Test Task", "Test Description");
+        mockMvc.perform(get("/api/1.0/tasks/get")
+                        .param("start", "0")
+                        .param("end", "10")
+                        .param("email", "author@email.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0].id").value(task.getId()))
+                .andExpect(jsonPath("$.data.content[0].name").value("Test Task"))
+                .andExpect(jsonPath("$.data.page.totalElements").value(1));
+    }
+
     @Test
     @WithMockUser(username = "author@email.com")
     void updateTask_shouldUpdateTask() throws Exception {
@@ -87,12 +246,465 @@ class TaskControllerIntegrationTest {
         assertEquals("Updated Description", updatedTask.getDescription());
     }
 
+    @Test
+    @WithMockUser(username = "assigned@email.com")
+    void editStatus_shouldAllowAssignedUser() throws Exception {
+        Task task = createTask("Test Task", "Test Description");
+        mockMvc.perform(put("/api/1.0/tasks/" + task.getId() + "/edit/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new EditTaskStatusDto(TaskStatus.PROCESSING))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status").value("PROCESSING"));
+    }
+
+    @Test
+    @WithMockUser(username = "assigned@email.com")
+    void editPriority_shouldBeForbiddenForAssignedUser() throws Exception {
+        Task task = createTask("Test Task", "Test Description");
+        mockMvc.perform(put("/api/1.0/tasks/" + task.getId() + "/edit/priority")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new EditTaskPriorityDto(TaskPriority.HIGH))))
+                .andExpect(status().isForbidden());
+
+        assertEquals(TaskPriority.LOW, taskRepository.findById(task.getId()).orElseThrow().getPriority());
+    }
+
+    @Test
+    @WithMockUser(username = "assigned@email.com")
+    void editStatusOfAll_shouldUpdateOnlyEditableTasks() throws Exception {
+        Task assigned = createTask("Assigned Task", "Description");
+        Task foreign = createTask("Foreign Task", "Description");
+        foreign.setAssignedEmail("other@email.com");
+        taskRepository.save(foreign);
+
+        BatchEditTaskStatusDto batchEditTaskStatusDto = new BatchEditTaskStatusDto(
+                Set.of(assigned.getId(), foreign.getId(), -1L), TaskStatus.PROCESSING);
+        mockMvc.perform(put("/api/1.0/tasks/batch/edit/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batchEditTaskStatusDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.updated.length()").value(1))
+                .andExpect(jsonPath("$.data.updated[0]").value(assigned.getId()))
+                .andExpect(jsonPath("$.data.refused.length()").value(2));
+
+        assertEquals(TaskStatus.PROCESSING, taskRepository.findById(assigned.getId()).orElseThrow().getStatus());
+        assertEquals(TaskStatus.FINISHED, taskRepository.findById(foreign.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    @WithMockUser(username = "author@email.com")
+    void scrollTasks_shouldReturnNextSliceByCursor() throws Exception {
+        Task first = createTask("First Task", "Description", TaskPriority.LOW);
+        Task second = createTask("Second Task", "Description", TaskPriority.HIGH);
+        Task third = createTask("Third Task", "Description", TaskPriority.LOW);
+
+        MvcResult firstSlice = mockMvc.perform(get("/api/1.0/tasks/scroll")
+                        .param("email", "author@email.com")
+                        .param("size", "2")
+                        .param("order", "PRIORITY"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0].id").value(second.getId()))
+                .andExpect(jsonPath("$.data.content[1].id").value(first.getId()))
+                .andReturn();
+
+        String nextCursor = JsonPath.read(firstSlice.getResponse().getContentAsString(), "$.data.nextCursor");
+        mockMvc.perform(get("/api/1.0/tasks/scroll")
+                        .param("email", "author@email.com")
+                        .param("size", "2")
+                        .param("order", "PRIORITY")
+                        .param("after", nextCursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content.length()").value(1))
+                .andExpect(jsonPath("$.data.content[0].id").value(third.getId()))
+                .andExpect(jsonPath("$.data.nextCursor").isEmpty());
+    }
+
+    @Test
+    @WithMockUser(username = "author@email.com")
+    void scrollTasks_shouldRejectInvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/1.0/tasks/scroll")
+                        .param("email", "author@email.com")
+                        .param("after", "not a cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "assigned@email.com")
+    void scrollInbox_shouldReturnAssignedTasksWithStatusByPriority() throws Exception {
+        Task low = createTask("Low Task", "Description", TaskPriority.LOW);
+        Task high = createTask("High Task", "Description", TaskPriority.HIGH);
+        Task medium = createTask("Medium Task", "Description", TaskPriority.MEDIUM);
+        Task pending = createTask("Pending Task", "Description", TaskPriority.HIGH);
+        pending.setStatus(TaskStatus.PENDING);
+        taskRepository.save(pending);
+
+        MvcResult firstSlice = mockMvc.perform(get("/api/1.0/tasks/inbox")
+                        .param("status", "FINISHED", "PROCESSING")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content.length()").value(2))
+                .andExpect(jsonPath("$.data.content[0].id").value(high.getId()))
+                .andExpect(jsonPath("$.data.content[1].id").value(medium.getId()))
+                .andReturn();
+
+        String nextCursor = JsonPath.read(firstSlice.getResponse().getContentAsString(), "$.data.nextCursor");
+        mockMvc.perform(get("/api/1.0/tasks/inbox")
+                        .param("status", "FINISHED", "PROCESSING")
+                        .param("size", "2")
+                        .param("after", nextCursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content.length()").value(1))
+                .andExpect(jsonPath("$.data.content[0].id").value(low.getId()))
+                .andExpect(jsonPath("$.data.nextCursor").isEmpty());
+    }
+
+    @Test
+    @WithMockUser(username = "author@email.com")
+    void searchTasks_shouldFilterAndSortInDatabase() throws Exception {
+        Task low = createTask("Report for March", "Description", TaskPriority.LOW);
+        Task high = createTask("Report for April", "Description", TaskPriority.HIGH);
+        createTask("Meeting", "Description", TaskPriority.HIGH);
+        Task pending = createTask("Report for May", "Description", TaskPriority.MEDIUM);
+        pending.setStatus(TaskStatus.PENDING);
+        taskRepository.save(pending);
+
+        MvcResult firstSlice = mockMvc.perform(get("/api/1.0/tasks/search")
+                        .param("authorEmail", "author@email.com")
+                        .param("statuses", "FINISHED")
+                        .param("namePrefix", "Report")
+                        .param("order", "PRIORITY_DESC")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content.length()").value(1))
+                .andExpect(jsonPath("$.data.content[0].id").value(low.getId()))
+                .andReturn();
+
+        String nextCursor = JsonPath.read(firstSlice.getResponse().getContentAsString(), "$.data.nextCursor");
+        mockMvc.perform(get("/api/1.0/tasks/search")
+                        .param("authorEmail", "author@email.com")
+                        .param("statuses", "FINISHED")
+                        .param("namePrefix", "Report")
+                        .param("order", "PRIORITY_DESC")
+                        .param("size", "1")
+                        .param("after", nextCursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content.length()").value(1))
+                .andExpect(jsonPath("$.data.content[0].id").value(high.getId()))
+                .andExpect(jsonPath("$.data.nextCursor").isEmpty());
+    }
+
+    @Test
+    @WithMockUser(username = "author@email.com")
+    void searchTasks_shouldRejectUnanchoredSearch() throws Exception {
+        mockMvc.perform(get("/api/1.0/tasks/search")
+                        .param("namePrefix", "Report"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/1.0/tasks/search")
+                        .param("assignedEmail", "assigned@email.com")
+                        .param("order", "ID"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "author@email.com")
+    void searchText_shouldRankNameMatchesFirstAndHighlightThem() throws Exception {
+        Task inDescription = createTask("Quarterly numbers", "Report is attached");
+        Task inName = createTask("Quarterly Report", "Numbers are attached");
+        createTask("Meeting", "Nothing to see");
+
+        mockMvc.perform(get("/api/1.0/tasks/search/text")
+                        .param("query", "report"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content.length()").value(2))
+                .andExpect(jsonPath("$.data.content[0].task.id").value(inName.getId()))
+                .andExpect(jsonPath("$.data.content[0].nameHighlight").value("Quarterly <b>Report</b>"))
+                .andExpect(jsonPath("$.data.content[1].task.id").value(inDescription.getId()))
+                .andExpect(jsonPath("$.data.content[1].descriptionHighlight").value("<b>Report</b> is attached"));
+    }
+
+    @Test
+    @WithMockUser(username = "author@email.com")
+    void searchText_shouldEscapeTaskTextInHighlights() throws Exception {
+        createTask("<img src=x onerror=alert(1)> Report", "Report & <script>");
+
+        mockMvc.perform(get("/api/1.0/tasks/search/text")
+                        .param("query", "report"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0].nameHighlight")
+                        .value("&lt;img src=x onerror=alert(1)&gt; <b>Report</b>"))
+                .andExpect(jsonPath("$.data.content[0].descriptionHighlight")
+                        .value("<b>Report</b> &amp; &lt;script&gt;"));
+    }
+
+    @Test
+    @WithMockUser(username = "author@email.com")
+    void searchText_shouldRejectPageBeyondResultLimit() throws Exception {
+        mockMvc.perform(get("/api/1.0/tasks/search/text")
+                        .param("query", "report")
+                        .param("page", String.valueOf(Integer.MAX_VALUE))
+                        .param("size", "20"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "author@email.com")
+    void suggestAssignees_shouldRejectShortPrefix() throws Exception {
+        mockMvc.perform(get("/api/1.0/tasks/assignees/suggest")
+                        .param("prefix", "a"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "author@email.com")
+    void suggestAssignees_shouldRankByUsage() throws Exception {
+        for (String assignedEmail : List.of("alex.suggest@email.com", "alice.suggest@email.com",
+                "alice.suggest@email.com", "bob.suggest@email.com")) {
+            CreateTaskDto createTaskDto = new CreateTaskDto("Test Task", "Test Description",
+                    TaskStatus.PENDING, TaskPriority.LOW, assignedEmail);
+            mockMvc.perform(post("/api/1.0/tasks/create")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(createTaskDto)))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/api/1.0/tasks/assignees/suggest")
+                        .param("prefix", "AL"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0]").value("alice.suggest@email.com"))
+                .andExpect(jsonPath("$.data[1]").value("alex.suggest@email.com"));
+    }
+
+    @Test
+    @WithMockUser(username = "author@email.com")
+    void deleteTask_shouldHideTaskAndCommentsUntilPurged() throws Exception {
+        Task task = createTask("Discussed Task", "Description");
+        Task kept = createTask("Kept Task", "Description");
+        List<Long> commentIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Comments comment = new Comments();
+            comment.setText("Comment " + i);
+            comment.setAuthorEmail("author@email.com");
+            comment.setTask(task);
+            commentIds.add(commentsRepository.save(comment).getId());
+        }
+        Long commentId = commentIds.getFirst();
+        mockMvc.perform(get("/api/1.0/comments/get/" + commentId))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/1.0/tasks/" + task.getId() + "/delete"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/1.0/tasks/get/" + task.getId()))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/1.0/comments/get/" + commentId))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/1.0/tasks/get")
+                        .param("start", "0")
+                        .param("end", "10")
+                        .param("email", "author@email.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content.length()").value(1))
+                .andExpect(jsonPath("$.data.content[0].id").value(kept.getId()));
+        mockMvc.perform(delete("/api/1.0/tasks/" + task.getId() + "/delete"))
+                .andExpect(status().isBadRequest());
+
+        taskPurgeService.purge();
+
+        assertTrue(taskRepository.findById(task.getId()).isEmpty());
+        assertTrue(commentsRepository.findAllById(commentIds).isEmpty());
+        assertTrue(taskRepository.findById(kept.getId()).isPresent());
+    }
+
+    @Test
+    @WithMockUser(username = "author@email.com")
+    void archive_shouldMoveOldFinishedTasksAndKeepThemReadable() throws Exception {
+        Task old = createTask("Old Task", "Description");
+        old.setFinishedAt(Instant.now().minus(Duration.ofDays(400)));
+        old.setCommentCount(1L);
+        taskRepository.save(old);
+        Task recent = createTask("Recent Task", "Description");
+        Comments comment = new Comments();
+        comment.setText("Comment");
+        comment.setAuthorEmail("author@email.com");
+        comment.setTask(old);
+        commentsRepository.save(comment);
+
+        taskArchiveService.archive();
+
+        assertTrue(taskRepository.findById(old.getId()).isEmpty());
+        assertTrue(commentsRepository.findById(comment.getId()).isEmpty());
+        assertTrue(taskRepository.findById(recent.getId()).isPresent());
+        mockMvc.perform(get("/api/1.0/tasks/get/" + old.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.name").value("Old Task"))
+                .andExpect(jsonPath("$.data.status").value("FINISHED"))
+                .andExpect(jsonPath("$.data.commentCount").value(1));
+    }
+
+    @Test
+    @WithMockUser(username = "stats.author@email.com")
+    void getStatistics_shouldFollowCreateEditAndDelete() throws Exception {
+        Long first = createTaskThroughApi(new CreateTaskDto("First Task", "Description",
+                TaskStatus.PENDING, TaskPriority.LOW, "stats.assigned@email.com"));
+        Long second = createTaskThroughApi(new CreateTaskDto("Second Task", "Description",
+                TaskStatus.PENDING, TaskPriority.LOW, "stats.assigned@email.com"));
+        Long third = createTaskThroughApi(new CreateTaskDto("Third Task", "Description",
+                TaskStatus.PENDING, TaskPriority.HIGH, "stats.assigned@email.com"));
+
+        mockMvc.perform(put("/api/1.0/tasks/" + first + "/edit/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new EditTaskStatusDto(TaskStatus.PROCESSING))))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/1.0/tasks/" + second + "/edit/priority")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new EditTaskPriorityDto(TaskPriority.HIGH))))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/1.0/tasks/" + third + "/delete"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/1.0/tasks/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.authored.PENDING.HIGH").value(1))
+                .andExpect(jsonPath("$.data.authored.PENDING.LOW").value(0))
+                .andExpect(jsonPath("$.data.authored.PROCESSING.LOW").value(1))
+                .andExpect(jsonPath("$.data.assigned.PENDING.LOW").value(0));
+
+        TaskStatisticsDto assigned = taskStatisticsService.getStatistics("stats.assigned@email.com");
+        assertEquals(1L, assigned.assigned().get(TaskStatus.PROCESSING).get(TaskPriority.LOW));
+        assertEquals(1L, assigned.assigned().get(TaskStatus.PENDING).get(TaskPriority.HIGH));
+        assertEquals(0L, assigned.assigned().get(TaskStatus.PENDING).get(TaskPriority.LOW));
+    }
+
+    @Test
+    @WithMockUser(username = "drift.author@email.com")
+    void reconcile_shouldRepairCountersOfTasksWrittenAroundTheService() throws Exception {
+        Task task = createTask("Drift Task", "Description");
+        task.setAuthorEmail("drift.author@email.com");
+        taskRepository.save(task);
+
+        taskStatisticsService.reconcile();
+
+        mockMvc.perform(get("/api/1.0/tasks/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.authored.FINISHED.LOW").value(1));
+    }
+
+    @Test
+    @WithMockUser(username = "locked.author@email.com")
+    void reconcile_shouldSkipWhileAnotherInstanceHoldsTheLock() throws Exception {
+        Task task = createTask("Locked Drift Task", "Description");
+        task.setAuthorEmail("locked.author@email.com");
+        taskRepository.save(task);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertTrue(taskStatisticsRepository.tryLockReconciliation());
+            CompletableFuture.runAsync(taskStatisticsService::reconcile).join();
+        });
+        mockMvc.perform(get("/api/1.0/tasks/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.authored.FINISHED.LOW").value(0));
+
+        taskStatisticsService.reconcile();
+        mockMvc.perform(get("/api/1.0/tasks/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.authored.FINISHED.LOW").value(1));
+    }
+
+    @Test
+    @WithMockUser(username = "author@email.com")
+    void exportTasks_shouldStreamTasksFollowedByTheirComments() throws Exception {
+        Task first = createTask("First Task", "Description");
+        Task second = createTask("Second Task", "Description");
+        Comments comment = new Comments();
+        comment.setText("Comment");
+        comment.setAuthorEmail("author@email.com");
+        comment.setTask(first);
+        commentsRepository.save(comment);
+
+        MvcResult result = mockMvc.perform(get("/api/1.0/tasks/export")
+                        .param("email", "author@email.com")
+                        .param("comments", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().split("\n");
+        assertEquals(3, lines.length);
+        assertEquals(first.getId().intValue(), JsonPath.<Integer>read(lines[0], "$.data.id").intValue());
+        assertEquals("comment", JsonPath.read(lines[1], "$.type"));
+        assertEquals(first.getId().intValue(), JsonPath.<Integer>read(lines[1], "$.data.taskId").intValue());
+        assertEquals(second.getId().intValue(), JsonPath.<Integer>read(lines[2], "$.data.id").intValue());
+    }
+
+    @Test
+    @WithMockUser(username = "author@email.com")
+    void exportTasks_shouldWriteCsv() throws Exception {
+        createTask("Task, with comma", "Description");
+
+        MvcResult result = mockMvc.perform(get("/api/1.0/tasks/export")
+                        .param("email", "author@email.com")
+                        .param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] rows = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().split("\r\n");
+        assertEquals(2, rows.length);
+        assertTrue(rows[1].contains(",\"Task, with comma\","));
+    }
+
+    @Test
+    @WithMockUser(username = "author@email.com")
+    void importTasks_shouldImportValidLinesAndReportInvalidOnes() throws Exception {
+        String body = String.join("\n",
+                "{\"type\":\"task\",\"data\":{\"name\":\"Imported\",\"description\":\"Description\",\"status\":\"PENDING\",\"priority\":\"LOW\",\"assignedEmail\":\"assigned@email.com\"}}",
+                "{\"type\":\"comment\",\"data\":{\"text\":\"First comment\"}}",
+                "{\"type\":\"task\",\"data\":{\"name\":\"\",\"description\":\"Description\",\"status\":\"PENDING\",\"priority\":\"LOW\",\"assignedEmail\":\"assigned@email.com\"}}",
+                "{\"type\":\"comment\",\"data\":{\"text\":\"Comment of the invalid task\"}}",
+                "not json");
+
+        mockMvc.perform(post("/api/1.0/tasks/import")
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.data.lines").value(5))
+                .andExpect(jsonPath("$.data.tasks").value(1))
+                .andExpect(jsonPath("$.data.comments").value(1))
+                .andExpect(jsonPath("$.data.failed").value(3))
+                .andExpect(jsonPath("$.data.errors[0].line").value(3))
+                .andExpect(jsonPath("$.data.errors[1].line").value(4))
+                .andExpect(jsonPath("$.data.errors[2].line").value(5));
+
+        Task task = taskRepository.findAll().getFirst();
+        assertEquals("Imported", task.getName());
+        assertEquals("author@email.com", task.getAuthorEmail());
+        assertEquals(1, commentsRepository.findOutputByTaskId(task.getId(), Pageable.unpaged()).getTotalElements());
+    }
+
+    private Long createTaskThroughApi(CreateTaskDto createTaskDto) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/1.0/tasks/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createTaskDto)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return JsonPath.<Number>read(result.getResponse().getContentAsString(), "$.data.id").longValue();
+    }
+
     private Task createTask(String name, String description) {
+        return createTask(name, description, TaskPriority.LOW);
+    }
+
+    private Task createTask(String name, String description, TaskPriority priority) {
         Task task = new Task();
         task.setName(name);
         task.setDescription(description);
         task.setAuthorEmail("author@email.com");
-        task.setPriority(TaskPriority.LOW);
+        task.setPriority(priority);
         task.setStatus(TaskStatus.FINISHED);
         task.setAssignedEmail("assigned@email.com");
         return taskRepository.save(task);
@@ -0,0 +1,116 @@
+package ru.oldzoomer.tasks.outbox;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.oldzoomer.tasks.constant.ChangeType;
+import ru.oldzoomer.tasks.constant.TaskPriority;
+import ru.oldzoomer.tasks.constant.TaskStatus;
+import ru.oldzoomer.tasks.entity.Comments;
+import ru.oldzoomer.tasks.entity.Task;
+import ru.oldzoomer.tasks.exception.PreconditionFailedException;
+import ru.oldzoomer.tasks.repo.OutboxRepository;
+import ru.oldzoomer.tasks.repo.TaskRepository;
+import ru.oldzoomer.tasks.service.CommentsService;
+import ru.oldzoomer.tasks.service.TaskImportService;
+import ru.oldzoomer.tasks.service.TaskService;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OutboxDispatcherIntegrationTest {
+    private static final String AUTHOR = "outbox.author@email.com";
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CommentsService commentsService;
+
+    @Autowired
+    private TaskImportService taskImportService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private OutboxSink outboxSink;
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll();
+    }
+
+    @Test
+    void dispatch_shouldSendCommittedChangesInOrderAndDropRolledBackOnes() throws InterruptedException {
+        Task task = taskService.create(createTask(), AUTHOR, null);
+        assertThrows(PreconditionFailedException.class,
+                () -> taskService.editPriority(task.getId(), TaskPriority.HIGH, Set.of(-1L), AUTHOR));
+        taskService.editStatus(task.getId(), TaskStatus.PROCESSING, null, AUTHOR);
+        Comments comment = new Comments();
+        comment.setText("Comment");
+        commentsService.create(comment, task.getId(), AUTHOR);
+
+        outboxDispatcher.dispatch();
+
+        List<OutboxMessage> sent = awaitMessages(task.getId(), 3);
+        assertEquals(List.of(ChangeType.TASK_CREATED, ChangeType.TASK_UPDATED, ChangeType.COMMENT_CREATED),
+                sent.stream().map(OutboxMessage::type).toList());
+        assertTrue(sent.get(1).payload().contains("\"status\":\"PROCESSING\""));
+        assertTrue(sent.get(1).payload().contains("\"priority\":\"LOW\""));
+        assertTrue(outboxRepository.findAll().stream().noneMatch(entry -> entry.getTaskId().equals(task.getId())));
+    }
+
+    @Test
+    void dispatch_shouldSendImportedTasksAndComments() throws InterruptedException {
+        String body = String.join("\n",
+                "{\"type\":\"task\",\"data\":{\"name\":\"Imported Outbox Task\",\"description\":\"Description\",\"status\":\"PENDING\",\"priority\":\"LOW\",\"assignedEmail\":\"outbox.assigned@email.com\"}}",
+                "{\"type\":\"comment\",\"data\":{\"text\":\"Imported comment\"}}");
+        taskImportService.importTasks(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), AUTHOR);
+        Task task = taskRepository.findAll().stream()
+                .filter(imported -> imported.getName().equals("Imported Outbox Task"))
+                .findFirst()
+                .orElseThrow();
+
+        outboxDispatcher.dispatch();
+
+        List<OutboxMessage> sent = awaitMessages(task.getId(), 2);
+        assertEquals(List.of(ChangeType.TASK_CREATED, ChangeType.COMMENT_CREATED),
+                sent.stream().map(OutboxMessage::type).toList());
+        assertTrue(sent.get(1).payload().contains("Imported comment"));
+    }
+
+    private List<OutboxMessage> awaitMessages(Long taskId, int expected) throws InterruptedException {
+        List<OutboxMessage> sent = List.of();
+        for (int attempt = 0; attempt < 100 && sent.size() < expected; attempt++) {
+            Thread.sleep(50);
+            sent = ((InMemoryOutboxSink) outboxSink).getMessages().stream()
+                    .filter(message -> message.taskId() == taskId)
+                    .toList();
+        }
+        return sent;
+    }
+
+    private static Task createTask() {
+        Task task = new Task();
+        task.setName("Outbox Task");
+        task.setDescription("Description");
+        task.setStatus(TaskStatus.PENDING);
+        task.setPriority(TaskPriority.LOW);
+        return task;
+    }
+}
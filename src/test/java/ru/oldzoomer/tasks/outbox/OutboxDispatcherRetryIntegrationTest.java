@@ -0,0 +1,108 @@
+package ru.oldzoomer.tasks.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.oldzoomer.tasks.constant.ChangeType;
+import ru.oldzoomer.tasks.entity.OutboxEntry;
+import ru.oldzoomer.tasks.repo.OutboxRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs on a database of its own, whose scheduled dispatcher does not poll during the test, so that
+ * only the dispatcher built here with a sink refusing one message drains the outbox.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox-retry;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "tasks.outbox.poll-interval=1h"
+})
+@ActiveProfiles("test")
+class OutboxDispatcherRetryIntegrationTest {
+    private static final String POISON = "poison";
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcClient jdbcClient;
+
+    private final List<OutboxMessage> sent = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        outboxRepository.deleteAll();
+        jdbcClient.sql("delete from outbox_dead_letter").update();
+    }
+
+    @Test
+    void dispatch_shouldSendAroundRefusedMessageAndDeadLetterIt() {
+        Long first = append(1L, "first");
+        Long poison = append(2L, POISON);
+        Long last = append(3L, "last");
+        OutboxDispatcher dispatcher = dispatcher(Duration.ZERO);
+
+        dispatcher.dispatch();
+
+        assertEquals(List.of(first, last), sent.stream().map(OutboxMessage::id).toList());
+        OutboxEntry refused = outboxRepository.findById(poison).orElseThrow();
+        assertEquals(1, refused.getAttempts());
+        assertNotNull(refused.getNextAttemptAt());
+
+        dispatcher.dispatch();
+
+        assertEquals(2, sent.size());
+        assertTrue(outboxRepository.findById(poison).isEmpty());
+        assertEquals(2, jdbcClient.sql("select attempts from outbox_dead_letter where id = ?")
+                .param(poison)
+                .query(Integer.class)
+                .single());
+    }
+
+    @Test
+    void dispatch_shouldNotOfferMessageBeforeItsRetry() {
+        Long poison = append(1L, POISON);
+        OutboxDispatcher dispatcher = dispatcher(Duration.ofHours(1));
+
+        dispatcher.dispatch();
+        dispatcher.dispatch();
+
+        assertEquals(1, outboxRepository.findById(poison).orElseThrow().getAttempts());
+    }
+
+    private OutboxDispatcher dispatcher(Duration retryBackoff) {
+        return new OutboxDispatcher(outboxRepository, this::send, transactionManager, new SimpleMeterRegistry(),
+                100, 2, retryBackoff, retryBackoff);
+    }
+
+    private void send(List<OutboxMessage> messages) {
+        if (messages.stream().anyMatch(message -> message.payload().equals(POISON))) {
+            throw new IllegalStateException("Sink refused the message");
+        }
+        sent.addAll(messages);
+    }
+
+    private Long append(Long taskId, String payload) {
+        OutboxEntry entry = new OutboxEntry();
+        entry.setType(ChangeType.TASK_UPDATED);
+        entry.setTaskId(taskId);
+        entry.setPayload(payload);
+        entry.setCreatedAt(Instant.now());
+        return outboxRepository.save(entry).getId();
+    }
+}
@@ -0,0 +1,142 @@
+package ru.oldzoomer.tasks.repo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.test.context.ActiveProfiles;
+import ru.oldzoomer.tasks.constant.TaskPriority;
+import ru.oldzoomer.tasks.constant.TaskStatus;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Seeds the database with enough rows for the planner to prefer indexes, runs the list queries
+ * through the repositories and explains the SQL they sent, so that the checked queries can't drift
+ * from the real ones.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+abstract class AbstractQueryPlanIntegrationTest {
+    static final int TASKS = 100_000;
+    static final String AUTHOR_EMAIL = "user1@email.com";
+    static final String ASSIGNED_EMAIL = "assignee1@email.com";
+
+    @Autowired
+    TaskRepository taskRepository;
+
+    @Autowired
+    CommentsRepository commentsRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcClient jdbcClient;
+
+    /**
+     * Table function of {@code count} rows with a column {@code x}.
+     */
+    abstract String series(int count);
+
+    abstract void assertUsesIndexes(String plan);
+
+    @BeforeEach
+    void seedOnce() {
+        if (jdbcClient.sql("select count(*) from tasks").query(Long.class).single() > 0) {
+            return;
+        }
+        jdbcClient.sql("""
+                insert into tasks (id, name, description, status, priority, author_email, assigned_email)
+                select x, 'Task ' || x, 'Description', mod(x, 3), mod(x, 3),
+                       'user' || mod(x, 1000) || '@email.com', 'assignee' || mod(x, 500) || '@email.com'
+                from %s""".formatted(series(TASKS))).update();
+        jdbcClient.sql("""
+                insert into comments (id, author_email, task_id, text)
+                select x, 'user' || mod(x, 1000) || '@email.com', mod(x, %d) + 1, 'Comment ' || x
+                from %s""".formatted(TASKS, series(2 * TASKS))).update();
+        jdbcClient.sql("analyze").update();
+    }
+
+    static Stream<Arguments> repositoryCalls() {
+        return Stream.of(
+                call("task by id", test -> test.taskRepository.findOutputById(TASKS / 2L)),
+                call("tasks by author", test -> test.taskRepository
+                        .findOutputByAuthorEmail(AUTHOR_EMAIL, PageRequest.of(0, 20))),
+                call("tasks by author after id", test -> test.taskRepository
+                        .findOutputByAuthorEmailAfterId(AUTHOR_EMAIL, TASKS / 2L, PageRequest.ofSize(20))),
+                call("tasks by author after priority key", test -> test.taskRepository
+                        .findOutputByAuthorEmailAfterPriorityKey(AUTHOR_EMAIL, TaskPriority.MEDIUM, TASKS / 2L,
+                                List.of(TaskPriority.LOW), PageRequest.ofSize(20))),
+                call("inbox", test -> test.taskRepository
+                        .findOutputByAssignedEmailAfterPriorityKey(ASSIGNED_EMAIL,
+                                EnumSet.of(TaskStatus.PENDING, TaskStatus.PROCESSING), TaskPriority.HIGH, 0L,
+                                List.of(TaskPriority.MEDIUM, TaskPriority.LOW), PageRequest.ofSize(20))),
+                call("inbox of all statuses", AbstractQueryPlanIntegrationTest::inboxOfAllStatuses),
+                call("search of assigned tasks by priority",
+                        AbstractQueryPlanIntegrationTest::searchOfAssignedTasksByPriority),
+                call("comment by id", test -> test.commentsRepository.findOutputById(TASKS / 2L)),
+                call("comments by task", test -> test.commentsRepository
+                        .findOutputByTaskId(1L, PageRequest.of(0, 20))),
+                call("comments by task after id", test -> test.commentsRepository
+                        .findOutputByTaskIdAfterId(1L, 0L, PageRequest.ofSize(20))),
+                call("comments by author", test -> test.commentsRepository
+                        .findOutputByAuthorEmail(AUTHOR_EMAIL, PageRequest.of(0, 20))),
+                call("comments by author after id", test -> test.commentsRepository
+                        .findOutputByAuthorEmailAfterId(AUTHOR_EMAIL, 0L, PageRequest.ofSize(20))));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryCalls")
+    void repositoryQuery_shouldUseIndexes(String name, Consumer<AbstractQueryPlanIntegrationTest> call)
+            throws SQLException {
+        assertQueriesUseIndexes(() -> call.accept(this));
+    }
+
+    void assertQueriesUseIndexes(Runnable calls) throws SQLException {
+        for (String plan : plansOf(calls)) {
+            assertUsesIndexes(plan);
+        }
+    }
+
+    List<String> plansOf(Runnable calls) throws SQLException {
+        List<RecordingDataSource.RecordedQuery> queries = RecordingDataSource.record(calls);
+        assertFalse(queries.isEmpty(), "No query was recorded");
+        List<String> plans = new ArrayList<>(queries.size());
+        try (Connection connection = dataSource.getConnection()) {
+            for (RecordingDataSource.RecordedQuery query : queries) {
+                plans.add(query.explain(connection));
+            }
+        }
+        return plans;
+    }
+
+    void searchOfAssignedTasksByPriority() {
+        taskRepository.findOutputBy(TaskSpecifications.assignedEmailIs(ASSIGNED_EMAIL)
+                        .and(TaskSpecifications.statusIn(EnumSet.of(TaskStatus.PENDING, TaskStatus.FINISHED))),
+                Sort.by(Sort.Direction.DESC, "priority", "id"), 20);
+    }
+
+    void inboxOfAllStatuses() {
+        taskRepository.findOutputByAssignedEmailAfterPriorityKey(ASSIGNED_EMAIL, EnumSet.allOf(TaskStatus.class),
+                TaskPriority.HIGH, 0L, List.of(TaskPriority.MEDIUM, TaskPriority.LOW), PageRequest.ofSize(20));
+    }
+
+    private static Arguments call(String name, Consumer<AbstractQueryPlanIntegrationTest> call) {
+        return Arguments.of(name, call);
+    }
+}
@@ -0,0 +1,139 @@
+package ru.oldzoomer.tasks.repo;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the statements, with their bound parameters, that the current thread runs inside
+ * {@link #record}, so that plan tests explain the very SQL the repositories generate.
+ */
+final class RecordingDataSource {
+    private static final ThreadLocal<List<RecordedQuery>> RECORDING = new ThreadLocal<>();
+
+    private RecordingDataSource() {
+    }
+
+    static List<RecordedQuery> record(Runnable calls) {
+        List<RecordedQuery> queries = new ArrayList<>();
+        RECORDING.set(queries);
+        try {
+            calls.run();
+        } finally {
+            RECORDING.remove();
+        }
+        return queries;
+    }
+
+    static DataSource wrap(DataSource dataSource) {
+        // Closeable too, so that the context still shuts the pool down
+        Class<?>[] types = dataSource instanceof AutoCloseable
+                ? new Class<?>[]{DataSource.class, AutoCloseable.class}
+                : new Class<?>[]{DataSource.class};
+        return (DataSource) Proxy.newProxyInstance(RecordingDataSource.class.getClassLoader(),
+                types, (proxy, method, args) -> {
+                    Object result = invoke(method, dataSource, args);
+                    return result instanceof Connection connection ? wrap(connection) : result;
+                });
+    }
+
+    private static Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(RecordingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(method, connection, args);
+                    if (method.getName().equals("prepareStatement") && result instanceof PreparedStatement statement) {
+                        return wrap(statement, (String) args[0]);
+                    }
+                    return result;
+                });
+    }
+
+    private static PreparedStatement wrap(PreparedStatement statement, String sql) {
+        List<Binding> bindings = new ArrayList<>();
+        return (PreparedStatement) Proxy.newProxyInstance(RecordingDataSource.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                        bindings.add(new Binding(method, args));
+                    } else if (name.equals("clearParameters")) {
+                        bindings.clear();
+                    } else if (name.startsWith("execute") && (args == null || args.length == 0)) {
+                        List<RecordedQuery> recording = RECORDING.get();
+                        if (recording != null) {
+                            recording.add(new RecordedQuery(sql, List.copyOf(bindings)));
+                        }
+                    }
+                    return invoke(method, statement, args);
+                });
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    record RecordedQuery(String sql, List<Binding> bindings) {
+
+        /**
+         * Plan of the query with its recorded parameters bound again.
+         */
+        String explain(Connection connection) throws SQLException {
+            StringBuilder plan = new StringBuilder();
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                for (Binding binding : bindings) {
+                    binding.bind(statement);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.append(resultSet.getString(1)).append('\n');
+                    }
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    record Binding(Method setter, Object[] args) {
+
+        void bind(PreparedStatement statement) throws SQLException {
+            try {
+                setter.invoke(statement, args);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof SQLException sqlException) {
+                    throw sqlException;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class Config {
+
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package ru.oldzoomer.tasks.repo;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Plans of the repository queries on H2, run by every build; {@link SchemaQueryPlanIntegrationTest}
+ * checks them on PostgreSQL where Docker is available. The database is separate from the one shared
+ * by the other tests, so that the seeded rows don't leak into them.
+ */
+@SpringBootTest(properties =
+        "spring.datasource.url=jdbc:h2:mem:plans;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@Import(RecordingDataSource.Config.class)
+class RepositoryQueryPlanIntegrationTest extends AbstractQueryPlanIntegrationTest {
+
+    @Override
+    String series(int count) {
+        return "system_range(1, " + count + ")";
+    }
+
+    @Override
+    void assertUsesIndexes(String plan) {
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+}
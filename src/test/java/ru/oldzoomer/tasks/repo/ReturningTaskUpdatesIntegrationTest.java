@@ -0,0 +1,103 @@
+package ru.oldzoomer.tasks.repo;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+import ru.oldzoomer.tasks.constant.TaskPriority;
+import ru.oldzoomer.tasks.constant.TaskStatus;
+import ru.oldzoomer.tasks.entity.Task;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks on a real PostgreSQL that the single-statement edits hand back the state they moved a task
+ * from, and apply the same guards as the JPQL updates.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest
+@ActiveProfiles("test")
+class ReturningTaskUpdatesIntegrationTest {
+    private static final String AUTHOR_EMAIL = "author@email.com";
+    private static final String ASSIGNED_EMAIL = "assigned@email.com";
+
+    @Container
+    private static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:17-alpine");
+
+    @Autowired
+    private TaskUpdates taskUpdates;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll();
+    }
+
+    @Test
+    void updateStatus_shouldReturnPreviousAndNewState() {
+        Task task = createTask();
+        Instant finishedAt = Instant.now();
+
+        TaskChange change = taskUpdates.updateStatus(task.getId(), TaskStatus.FINISHED, finishedAt, null, ASSIGNED_EMAIL)
+                .orElseThrow();
+
+        assertInstanceOf(ReturningTaskUpdates.class, taskUpdates);
+        assertEquals(TaskStatus.PENDING, change.before().status());
+        assertEquals(task.getVersion(), change.before().version());
+        assertEquals(TaskStatus.FINISHED, change.after().status());
+        assertEquals(task.getVersion() + 1, change.after().version());
+        assertEquals(TaskStatus.FINISHED, taskRepository.findOutputById(task.getId()).orElseThrow().status());
+    }
+
+    @Test
+    void updateAssignedEmail_shouldReturnPreviousAssignee() {
+        Task task = createTask();
+
+        TaskChange change = taskUpdates.updateAssignedEmail(task.getId(), "new@email.com", task.getVersion(), AUTHOR_EMAIL)
+                .orElseThrow();
+
+        assertEquals(ASSIGNED_EMAIL, change.before().assignedEmail());
+        assertEquals("new@email.com", change.after().assignedEmail());
+    }
+
+    @Test
+    void updates_shouldBeRefusedByTheGuards() {
+        Task task = createTask();
+
+        assertTrue(taskUpdates.updatePriority(task.getId(), TaskPriority.HIGH, null, ASSIGNED_EMAIL).isEmpty());
+        assertTrue(taskUpdates.updatePriority(task.getId(), TaskPriority.HIGH, task.getVersion() + 1, AUTHOR_EMAIL)
+                .isEmpty());
+        assertTrue(taskUpdates.updatePriority(-1L, TaskPriority.HIGH, null, AUTHOR_EMAIL).isEmpty());
+        assertEquals(TaskPriority.LOW, taskRepository.findOutputById(task.getId()).orElseThrow().priority());
+    }
+
+    private Task createTask() {
+        Task task = new Task();
+        task.setName("Task");
+        task.setDescription("Description");
+        task.setStatus(TaskStatus.PENDING);
+        task.setPriority(TaskPriority.LOW);
+        task.setAuthorEmail(AUTHOR_EMAIL);
+        task.setAssignedEmail(ASSIGNED_EMAIL);
+        return taskRepository.save(task);
+    }
+}
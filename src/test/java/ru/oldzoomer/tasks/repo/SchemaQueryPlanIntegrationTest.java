@@ -0,0 +1,67 @@
+package ru.oldzoomer.tasks.repo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Applies the migrations to a real PostgreSQL and checks that the list queries of the repositories
+ * and the full-text search don't fall back to sequential scans, and that the inbox is read in index
+ * order whatever the status filter, as is the search of assigned tasks.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@Import(RecordingDataSource.Config.class)
+class SchemaQueryPlanIntegrationTest extends AbstractQueryPlanIntegrationTest {
+    @Container
+    private static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:17-alpine");
+
+    @Autowired
+    private TaskTextSearch taskTextSearch;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Override
+    String series(int count) {
+        return "generate_series(1, " + count + ") x";
+    }
+
+    @Override
+    void assertUsesIndexes(String plan) {
+        assertTrue(plan.contains("Index Scan") || plan.contains("Index Only Scan"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    @Test
+    void inbox_shouldReadInIndexOrder() throws SQLException {
+        for (String plan : plansOf(this::inboxOfAllStatuses)) {
+            assertFalse(plan.contains("Sort"), plan);
+        }
+    }
+
+    @Test
+    void searchOfAssignedTasks_shouldReadInIndexOrder() throws SQLException {
+        for (String plan : plansOf(this::searchOfAssignedTasksByPriority)) {
+            assertFalse(plan.contains("Sort"), plan);
+        }
+    }
+
+    @Test
+    void textSearch_shouldUseIndexes() throws SQLException {
+        assertQueriesUseIndexes(() -> taskTextSearch.search("12345", 0, 20));
+    }
+}
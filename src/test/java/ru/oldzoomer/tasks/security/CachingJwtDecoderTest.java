@@ -0,0 +1,147 @@
+package ru.oldzoomer.tasks.security;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CachingJwtDecoderTest {
+    private final AtomicInteger verifications = new AtomicInteger();
+    private final AtomicInteger conversions = new AtomicInteger();
+    private final AtomicLong nanos = new AtomicLong();
+
+    private JwtEncoder issuer;
+    private JwtEncoder foreignIssuer;
+    private CachingJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() throws NoSuchAlgorithmException {
+        KeyPair keyPair = generateKeyPair();
+        issuer = encoderOf(keyPair);
+        foreignIssuer = encoderOf(generateKeyPair());
+
+        JwtDecoder verifyingDecoder = NimbusJwtDecoder.withPublicKey((RSAPublicKey) keyPair.getPublic()).build();
+        JwtDecoder countingDecoder = token -> {
+            verifications.incrementAndGet();
+            return verifyingDecoder.decode(token);
+        };
+        KeycloakRoleConverter converter = new KeycloakRoleConverter();
+        decoder = new CachingJwtDecoder(countingDecoder, jwt -> {
+            conversions.incrementAndGet();
+            return converter.convert(jwt);
+        }, 100, Duration.ofMinutes(10), nanos::get);
+    }
+
+    @Test
+    void decode_shouldVerifyRepeatedTokenOnce() {
+        String token = token(issuer, Instant.now().plus(Duration.ofMinutes(5)));
+
+        Jwt first = decoder.decode(token);
+        Jwt second = decoder.decode(token);
+
+        assertSame(first, second);
+        assertEquals(1, verifications.get());
+        assertEquals(List.of("ROLE_USER", "ROLE_ADMIN"), authorityNames(decoder.authorities(second)));
+    }
+
+    @Test
+    void authorities_shouldComeFromDecodedTokenWithoutAnotherLookup() {
+        String token = token(issuer, Instant.now().plus(Duration.ofMinutes(5)));
+
+        Jwt jwt = decoder.decode(token);
+        decoder.getCache().invalidateAll();
+
+        assertEquals(List.of("ROLE_USER", "ROLE_ADMIN"), authorityNames(decoder.authorities(jwt)));
+        assertEquals(1, conversions.get());
+        assertEquals(1, decoder.getCache().stats().requestCount());
+    }
+
+    @Test
+    void decode_shouldVerifyTokenAgainAfterItExpires() {
+        String token = token(issuer, Instant.now().plus(Duration.ofMinutes(5)));
+
+        decoder.decode(token);
+        nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+        decoder.decode(token);
+
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void decode_shouldNotCacheRejectedTokens() {
+        String token = token(foreignIssuer, Instant.now().plus(Duration.ofMinutes(5)));
+
+        assertThrows(JwtException.class, () -> decoder.decode(token));
+        assertThrows(JwtException.class, () -> decoder.decode(token));
+
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void authorities_shouldConvertTokenNotDecodedByCache() {
+        Jwt jwt = Jwt.withTokenValue("not-cached")
+                .header("alg", "RS256")
+                .claim("realm_access", Map.of("roles", List.of("uma_authorization", "user")))
+                .build();
+
+        assertEquals(List.of("ROLE_USER"), authorityNames(decoder.authorities(jwt)));
+    }
+
+    private static String token(JwtEncoder encoder, Instant expiresAt) {
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject("user@email.com")
+                .issuedAt(Instant.now())
+                .expiresAt(expiresAt)
+                .claim("realm_access", Map.of("roles", List.of("user", "offline_access")))
+                .claim("resource_access", Map.of("tasks", Map.of("roles", List.of("admin"))))
+                .build();
+        JwsHeader header = JwsHeader.with(SignatureAlgorithm.RS256).build();
+        return encoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+
+    private static List<String> authorityNames(Collection<GrantedAuthority> authorities) {
+        return authorities.stream().map(GrantedAuthority::getAuthority).toList();
+    }
+
+    private static JwtEncoder encoderOf(KeyPair keyPair) {
+        RSAKey key = new RSAKey.Builder((RSAPublicKey) keyPair.getPublic())
+                .privateKey((RSAPrivateKey) keyPair.getPrivate())
+                .build();
+        return new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(key)));
+    }
+
+    private static KeyPair generateKeyPair() throws NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+}
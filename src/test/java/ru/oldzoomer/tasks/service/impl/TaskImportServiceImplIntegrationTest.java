@@ -0,0 +1,117 @@
+package ru.oldzoomer.tasks.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import ru.oldzoomer.tasks.dto.output.tasks.ImportErrorDto;
+import ru.oldzoomer.tasks.dto.output.tasks.ImportResultDto;
+import ru.oldzoomer.tasks.entity.Task;
+import ru.oldzoomer.tasks.repo.CommentsRepository;
+import ru.oldzoomer.tasks.repo.TaskRepository;
+import ru.oldzoomer.tasks.service.TaskImportService;
+import ru.oldzoomer.tasks.service.TaskStatisticsService;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Runs the import with chunks of two lines, so that comments and their tasks fall into different
+ * chunks and every chunk is written in its own transaction.
+ */
+@SpringBootTest(properties = "tasks.import.chunk-size=2")
+@ActiveProfiles("test")
+class TaskImportServiceImplIntegrationTest {
+    private static final String AUTHOR_EMAIL = "author@email.com";
+
+    @Autowired
+    private TaskImportService taskImportService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CommentsRepository commentsRepository;
+
+    @MockitoSpyBean
+    private TaskStatisticsService taskStatisticsService;
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll();
+    }
+
+    @Test
+    void importTasks_shouldAttachCommentToTaskOfEarlierChunk() {
+        ImportResultDto result = importLines(
+                task("First"),
+                task("Second"),
+                comment("Comment of the second task"),
+                comment("Another comment of the second task"));
+
+        assertEquals(4, result.lines());
+        assertEquals(2, result.tasks());
+        assertEquals(2, result.comments());
+        assertEquals(0, result.failed());
+
+        Task second = taskNamed("Second");
+        assertEquals(2, second.getCommentCount());
+        assertEquals(2, commentsRepository.findOutputByTaskId(second.getId(), Pageable.unpaged()).getTotalElements());
+        assertEquals(0, taskNamed("First").getCommentCount());
+    }
+
+    @Test
+    void importTasks_shouldReportFailedChunkAndWriteTheNextOnes() {
+        doThrow(new IllegalStateException("Statistics are unavailable"))
+                .doCallRealMethod()
+                .when(taskStatisticsService).record(anyCollection(), anyCollection());
+
+        ImportResultDto result = importLines(
+                task("Lost"),
+                task("Also lost"),
+                comment("Comment of the lost task"),
+                task("Kept"));
+
+        assertEquals(4, result.lines());
+        assertEquals(1, result.tasks());
+        assertEquals(0, result.comments());
+        assertEquals(3, result.failed());
+        assertEquals(List.of(1L, 2L, 3L), result.errors().stream().map(ImportErrorDto::line).toList());
+        assertTrue(result.errors().getFirst().errors().getFirst().startsWith("Chunk was not written"));
+        assertEquals(List.of("Task of the comment was not imported"), result.errors().get(2).errors());
+
+        List<Task> tasks = taskRepository.findAll();
+        assertEquals(1, tasks.size());
+        assertEquals("Kept", tasks.getFirst().getName());
+    }
+
+    private ImportResultDto importLines(String... lines) {
+        byte[] body = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+        return taskImportService.importTasks(new ByteArrayInputStream(body), AUTHOR_EMAIL);
+    }
+
+    private Task taskNamed(String name) {
+        return taskRepository.findAll().stream()
+                .filter(task -> task.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static String task(String name) {
+        return "{\"type\":\"task\",\"data\":{\"name\":\"" + name + "\",\"description\":\"Description\","
+                + "\"status\":\"PENDING\",\"priority\":\"LOW\",\"assignedEmail\":\"assigned@email.com\"}}";
+    }
+
+    private static String comment(String text) {
+        return "{\"type\":\"comment\",\"data\":{\"text\":\"" + text + "\"}}";
+    }
+}
@@ -0,0 +1,124 @@
+package ru.oldzoomer.tasks.service.impl;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import ru.oldzoomer.tasks.config.CacheConfig;
+import ru.oldzoomer.tasks.constant.TaskPriority;
+import ru.oldzoomer.tasks.constant.TaskStatus;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskOutputDto;
+import ru.oldzoomer.tasks.entity.Task;
+import ru.oldzoomer.tasks.repo.TaskRepository;
+import ru.oldzoomer.tasks.service.TaskService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskServiceImplCacheIntegrationTest {
+    private static final String AUTHOR_EMAIL = "author@email.com";
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll();
+        tasksCache().clear();
+    }
+
+    @Test
+    void getTask_shouldBeServedFromCacheUntilEdited() {
+        Long id = createTask().getId();
+        CacheStats before = stats();
+
+        taskService.getTask(id);
+        taskService.getTask(id);
+
+        CacheStats afterReads = stats();
+        assertEquals(1, afterReads.missCount() - before.missCount());
+        assertEquals(1, afterReads.hitCount() - before.hitCount());
+
+        taskService.editStatus(id, TaskStatus.PROCESSING, null, AUTHOR_EMAIL);
+
+        assertEquals(TaskStatus.PROCESSING, taskService.getTask(id).status());
+        assertEquals(2, stats().missCount() - before.missCount());
+    }
+
+    @Test
+    void getTask_shouldNeverReturnStaleDataAfterConcurrentEdits() throws Exception {
+        Long id = createTask().getId();
+        int edits = 200;
+        AtomicBoolean editing = new AtomicBoolean(true);
+        List<Future<?>> readers = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(6)) {
+            for (int i = 0; i < 6; i++) {
+                readers.add(executor.submit(() -> {
+                    long lastVersion = -1;
+                    while (editing.get()) {
+                        long version = taskService.getTask(id).version();
+                        assertTrue(version >= lastVersion, "Cache went back to an older version");
+                        lastVersion = version;
+                    }
+                    return null;
+                }));
+            }
+
+            for (int i = 0; i < edits; i++) {
+                Task changes = new Task();
+                changes.setName("Task " + i);
+                changes.setDescription("Description " + i);
+                taskService.editNameAndDescription(id, changes, null, AUTHOR_EMAIL);
+            }
+            editing.set(false);
+
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        }
+
+        TaskOutputDto cached = taskService.getTask(id);
+        assertEquals(taskRepository.findOutputById(id).orElseThrow(), cached);
+        assertEquals("Task " + (edits - 1), cached.name());
+        assertEquals(edits, cached.version());
+    }
+
+    private Task createTask() {
+        Task task = new Task();
+        task.setName("Test Task");
+        task.setDescription("Test Description");
+        task.setAuthorEmail(AUTHOR_EMAIL);
+        task.setPriority(TaskPriority.LOW);
+        task.setStatus(TaskStatus.PENDING);
+        task.setAssignedEmail("assigned@email.com");
+        return taskRepository.save(task);
+    }
+
+    private Cache tasksCache() {
+        return cacheManager.getCache(CacheConfig.TASKS);
+    }
+
+    private CacheStats stats() {
+        return ((com.github.benmanes.caffeine.cache.Cache<?, ?>) tasksCache().getNativeCache()).stats();
+    }
+}
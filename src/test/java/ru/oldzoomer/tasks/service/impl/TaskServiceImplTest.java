@@ -2,16 +2,33 @@ package ru.oldzoomer.tasks.service.impl;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.oldzoomer.tasks.constant.TaskPriority;
 import ru.oldzoomer.tasks.constant.TaskStatus;
+import ru.oldzoomer.tasks.dto.output.tasks.TaskOutputDto;
 import ru.oldzoomer.tasks.entity.Task;
+import ru.oldzoomer.tasks.event.ChangeEvent;
 import ru.oldzoomer.tasks.exception.ForbiddenChangesException;
+import ru.oldzoomer.tasks.exception.PreconditionFailedException;
+import ru.oldzoomer.tasks.exception.TaskNotFoundException;
+import ru.oldzoomer.tasks.mapper.TaskMapper;
+import ru.oldzoomer.tasks.repo.TaskChange;
 import ru.oldzoomer.tasks.repo.TaskRepository;
+import ru.oldzoomer.tasks.repo.TaskUpdates;
+import ru.oldzoomer.tasks.service.AssigneeSuggestionService;
+import ru.oldzoomer.tasks.service.TaskStatisticsService;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -23,43 +40,135 @@ class TaskServiceImplTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private TaskUpdates taskUpdates;
+
+    @Mock
+    private TaskStatisticsService taskStatisticsService;
+
+    @Mock
+    private TaskMapper taskMapper;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private AssigneeSuggestionService assigneeSuggestionService;
+
     @InjectMocks
     private TaskServiceImpl taskService;
 
     @Test
     void editStatusAsAuthor() {
-        Task task = mock(Task.class);
-
-        when(task.getAuthorEmail()).thenReturn(AUTHOR_EMAIL);
-        when(taskRepository.findById(0L)).thenReturn(Optional.of(task));
+        TaskOutputDto task = createTaskOutputDto(TaskStatus.FINISHED);
+        TaskChange change = new TaskChange(createTaskOutputDto(TaskStatus.PENDING), task);
 
-        taskService.editStatus(0L, TaskStatus.FINISHED, "author@email.com");
+        when(taskUpdates.updateStatus(eq(0L), eq(TaskStatus.FINISHED), any(Instant.class), isNull(), eq(AUTHOR_EMAIL))).thenReturn(Optional.of(change));
 
-        verify(task).setStatus(TaskStatus.FINISHED);
+        assertEquals(task, taskService.editStatus(0L, TaskStatus.FINISHED, null, AUTHOR_EMAIL));
+        verify(taskStatisticsService).record(List.of(change.before()), List.of(task));
     }
 
     @Test
     void editStatusAsAssigned() {
-        Task task = mock(Task.class);
+        TaskOutputDto task = createTaskOutputDto(TaskStatus.FINISHED);
 
-        when(task.getAuthorEmail()).thenReturn(AUTHOR_EMAIL);
-        when(task.getAssignedEmail()).thenReturn(ASSIGNED_EMAIL);
-        when(taskRepository.findById(0L)).thenReturn(Optional.of(task));
+        when(taskUpdates.updateStatus(eq(0L), eq(TaskStatus.FINISHED), any(Instant.class), isNull(), eq(ASSIGNED_EMAIL)))
+                .thenReturn(Optional.of(new TaskChange(createTaskOutputDto(TaskStatus.PENDING), task)));
 
-        taskService.editStatus(0L, TaskStatus.FINISHED, "assigned@email.com");
-
-        verify(task).setStatus(TaskStatus.FINISHED);
+        assertEquals(task, taskService.editStatus(0L, TaskStatus.FINISHED, null, ASSIGNED_EMAIL));
     }
 
     @Test
     void editStatusAsNotAuthorOrAssigned() {
-        Task task = mock(Task.class);
-
-        when(task.getAuthorEmail()).thenReturn(AUTHOR_EMAIL);
-        when(task.getAssignedEmail()).thenReturn(ASSIGNED_EMAIL);
-        when(taskRepository.findById(0L)).thenReturn(Optional.of(task));
+        when(taskUpdates.updateStatus(eq(0L), eq(TaskStatus.FINISHED), any(Instant.class), isNull(), eq("3@1.ru"))).thenReturn(Optional.empty());
+        when(taskRepository.findVersionById(0L)).thenReturn(Optional.of(0L));
 
         assertThrows(ForbiddenChangesException.class,
-                () -> taskService.editStatus(0L, TaskStatus.FINISHED, "3@1.ru"));
+                () -> taskService.editStatus(0L, TaskStatus.FINISHED, null, "3@1.ru"));
+    }
+
+    @Test
+    void editStatusOfMissingTask() {
+        when(taskUpdates.updateStatus(eq(0L), eq(TaskStatus.FINISHED), any(Instant.class), isNull(), eq(AUTHOR_EMAIL))).thenReturn(Optional.empty());
+        when(taskRepository.findVersionById(0L)).thenReturn(Optional.empty());
+
+        assertThrows(TaskNotFoundException.class,
+                () -> taskService.editStatus(0L, TaskStatus.FINISHED, null, AUTHOR_EMAIL));
+        verifyNoInteractions(taskStatisticsService);
+    }
+
+    @Test
+    void editStatusWithStaleVersion() {
+        when(taskUpdates.updateStatus(eq(0L), eq(TaskStatus.FINISHED), any(Instant.class), eq(1L), eq(AUTHOR_EMAIL))).thenReturn(Optional.empty());
+        when(taskRepository.findVersionById(0L)).thenReturn(Optional.of(2L));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> taskService.editStatus(0L, TaskStatus.FINISHED, Set.of(1L), AUTHOR_EMAIL));
+    }
+
+    @Test
+    void deleteAsAuthor() {
+        TaskOutputDto task = createTaskOutputDto(TaskStatus.PROCESSING);
+
+        when(taskRepository.markDeleted(0L, AUTHOR_EMAIL)).thenReturn(1);
+        when(taskRepository.findDeletedOutputById(0L)).thenReturn(Optional.of(task));
+
+        taskService.delete(0L, AUTHOR_EMAIL);
+        verify(taskStatisticsService).record(List.of(task), List.of());
+    }
+
+    @Test
+    void deleteAsNotAuthor() {
+        when(taskRepository.markDeleted(0L, ASSIGNED_EMAIL)).thenReturn(0);
+        when(taskRepository.findVersionById(0L)).thenReturn(Optional.of(0L));
+
+        assertThrows(ForbiddenChangesException.class, () -> taskService.delete(0L, ASSIGNED_EMAIL));
+        verify(taskRepository, never()).findDeletedOutputById(0L);
+    }
+
+    @Test
+    void deleteOfMissingTask() {
+        when(taskRepository.markDeleted(0L, AUTHOR_EMAIL)).thenReturn(0);
+        when(taskRepository.findVersionById(0L)).thenReturn(Optional.empty());
+
+        assertThrows(TaskNotFoundException.class, () -> taskService.delete(0L, AUTHOR_EMAIL));
+    }
+
+    @Test
+    void editPriorityOfAllReturnsLockedTasksOnly() {
+        Task editable = new Task();
+        editable.setId(1L);
+        TaskOutputDto task = new TaskOutputDto(1L, "Task", "Description", TaskStatus.PENDING, TaskPriority.LOW,
+                AUTHOR_EMAIL, ASSIGNED_EMAIL, 1L, 0L);
+
+        when(taskRepository.findAllEditableByAuthorForUpdate(Set.of(1L, 2L), AUTHOR_EMAIL)).thenReturn(List.of(editable));
+        when(taskMapper.map(editable)).thenReturn(task);
+
+        assertEquals(Set.of(1L), taskService.editPriorityOfAll(Set.of(1L, 2L), TaskPriority.HIGH, AUTHOR_EMAIL));
+        verify(taskRepository).updatePriorityByIds(Set.of(1L), TaskPriority.HIGH, AUTHOR_EMAIL);
+    }
+
+    @Test
+    void editAssignedUserNotifiesPreviousAssignee() {
+        TaskOutputDto before = createTaskOutputDto(TaskStatus.PENDING);
+        TaskOutputDto after = new TaskOutputDto(0L, "Task", "Description", TaskStatus.PENDING, TaskPriority.LOW,
+                AUTHOR_EMAIL, "new@email.com", 2L, 0L);
+
+        when(taskUpdates.updateAssignedEmail(0L, "new@email.com", null, AUTHOR_EMAIL))
+                .thenReturn(Optional.of(new TaskChange(before, after)));
+
+        taskService.editAssignedUser(0L, "new@email.com", null, AUTHOR_EMAIL);
+
+        ArgumentCaptor<ChangeEvent> event = ArgumentCaptor.forClass(ChangeEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(Set.of(AUTHOR_EMAIL, ASSIGNED_EMAIL, "new@email.com"), event.getValue().recipients());
+    }
+
+    private TaskOutputDto createTaskOutputDto(TaskStatus status) {
+        return new TaskOutputDto(0L, "Task", "Description", status, TaskPriority.LOW, AUTHOR_EMAIL, ASSIGNED_EMAIL, 1L, 0L);
     }
 }